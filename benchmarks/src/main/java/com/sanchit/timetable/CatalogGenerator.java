@@ -0,0 +1,84 @@
+package com.sanchit.timetable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic synthetic catalogs for the benchmarks, using the same slot shapes the
+// instructor pages offer
+class CatalogGenerator {
+    static final String[] LECTURE_DAYS = { "MWF", "TTh" };
+    static final String[] LAB_DAYS = { "M", "T", "W", "Th", "F" };
+
+    static List<Course> courses(int count, long seed) {
+        Random random = new Random(seed);
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            courses.add(course(i, random));
+        }
+        return courses;
+    }
+
+    static Course course(int i, Random random) {
+        return new Course("CS F" + i, "Course " + i, "L" + (1 + random.nextInt(3)), "P" + (1 + random.nextInt(3)),
+                random.nextBoolean(), 3,
+                LECTURE_DAYS[random.nextInt(LECTURE_DAYS.length)],
+                TimetableSolver.LECTURE_TIMES[random.nextInt(TimetableSolver.LECTURE_TIMES.length)],
+                LAB_DAYS[random.nextInt(LAB_DAYS.length)],
+                TimetableSolver.LAB_TIMES[random.nextInt(TimetableSolver.LAB_TIMES.length)],
+                "Dr. " + random.nextInt(Math.max(1, i / 4 + 1)));
+    }
+
+    // Sections of a department for the solver: every instructor teaches three of them and
+    // about half have a lab. The timing is the same for all, the solver replaces it.
+    static List<Course> department(int sections, long seed) {
+        Random random = new Random(seed);
+        List<Integer> instructors = new ArrayList<>(sections);
+        for (int i = 0; i < sections; i++) {
+            instructors.add(i / 3);
+        }
+        Collections.shuffle(instructors, random);
+        List<Course> courses = new ArrayList<>(sections);
+        for (int i = 0; i < sections; i++) {
+            courses.add(new Course("DEPT F" + i, "Course " + i, "L1", "P1", random.nextBoolean(), 3, "MWF",
+                    "9:00 - 10:00", "T", "2:00 - 4:00", "Dr. " + instructors.get(i)));
+        }
+        return courses;
+    }
+
+    // Student cohorts of the given size, one for every size sections, whose courses may not clash
+    static List<List<Course>> cohorts(List<Course> courses, int size, long seed) {
+        Random random = new Random(seed);
+        List<List<Course>> cohorts = new ArrayList<>();
+        for (int g = 0; g < courses.size() / size; g++) {
+            List<Course> cohort = new ArrayList<>(size);
+            for (int k = 0; k < size; k++) {
+                cohort.add(courses.get(random.nextInt(courses.size())));
+            }
+            cohorts.add(cohort);
+        }
+        return cohorts;
+    }
+
+    // Write a catalog in the admin CSV import format to a temporary file
+    static File csv(int count, long seed) throws IOException {
+        File file = File.createTempFile("catalog-" + count + "-", ".csv");
+        file.deleteOnExit();
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
+            out.write("code,name,lectureSection,labSection,hasLab,lectures,lectureDays,lectureTime,"
+                    + "labDays,labTime,instructorName\n");
+            for (Course c : courses(count, seed)) {
+                out.write(String.join(",", c.courseCode, "\"" + c.courseName + "\"", c.lectureSection, c.labSection,
+                        String.valueOf(c.hasLab), String.valueOf(c.lectureCount), c.lectureDays, c.lectureTime,
+                        c.labDays, c.labTime, c.instructorName));
+                out.write('\n');
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sanchit.timetable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Checking one candidate course against the whole catalog: the pairwise scan the pages do
+// with hasTimeConflict, and the same question answered by the repository's interval index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    int catalogSize;
+
+    List<Course> catalog;
+    Course candidate;
+
+    @Setup
+    public void setup() {
+        catalog = CatalogGenerator.courses(catalogSize, 42);
+        candidate = new Course("CS F999", "Candidate", "L1", "P1", true, 3, "TTh", "10:00 - 11:00", "W",
+                "1:00 - 3:00", "Dr. 0");
+        CourseRepository.removeCourses(CourseRepository.courses());
+        CourseRepository.addCourses(catalog);
+    }
+
+    @Benchmark
+    public int pairwiseScan() {
+        int conflicts = 0;
+        for (Course course : catalog) {
+            if (candidate.hasTimeConflict(course)) {
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+
+    @Benchmark
+    public int indexedLookup() {
+        return CourseRepository.findConflicts(candidate).size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.sanchit.timetable;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Parsing a generated catalog CSV with each of the import readers (the successors of
+// AdminDashboard.parseCoursesFromCSV). Only parsing is measured, nothing is added to the
+// repository.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvImportBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    int catalogSize;
+
+    File file;
+
+    @Setup
+    public void setup() throws Exception {
+        file = CatalogGenerator.csv(catalogSize, 42);
+    }
+
+    @Benchmark
+    public int streamReader() throws Exception {
+        return CourseCsvImporter.stream(file, CourseCsvImporter.DEFAULT_CHUNK_SIZE, (chunk, bytesRead) -> true);
+    }
+
+    @Benchmark
+    public int mappedReader() throws Exception {
+        return new MappedCourseCsvReader().stream(file, CourseCsvImporter.DEFAULT_CHUNK_SIZE,
+                (chunk, bytesRead) -> true);
+    }
+
+    @Benchmark
+    public int parallelReader() throws Exception {
+        // Small pieces so even the smaller catalogs are split across the pool
+        return new ParallelCourseCsvParser(ForkJoinPool.commonPool(), 64 * 1024)
+                .stream(file, CourseCsvImporter.DEFAULT_CHUNK_SIZE, (chunk, bytesRead) -> true);
+    }
+}
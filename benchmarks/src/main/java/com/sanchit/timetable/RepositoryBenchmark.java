@@ -0,0 +1,77 @@
+package com.sanchit.timetable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// CourseRepository lookups and bulk insertion
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({ "1000", "10000", "100000" })
+        int catalogSize;
+
+        List<Course> courses;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            courses = CatalogGenerator.courses(catalogSize, 42);
+        }
+    }
+
+    // Repository filled with the catalog once per trial
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        String[] probes;
+        int next;
+
+        @Setup(Level.Trial)
+        public void load(Catalog catalog) {
+            CourseRepository.removeCourses(CourseRepository.courses());
+            CourseRepository.addCourses(catalog.courses);
+            // Half of the probed codes exist
+            probes = new String[1024];
+            for (int i = 0; i < probes.length; i++) {
+                probes[i] = "CS F" + (i % 2 == 0 ? i * 7919 % catalog.catalogSize : catalog.catalogSize + i);
+            }
+        }
+    }
+
+    // The repository is static, so every addCourses invocation starts from an empty one
+    @State(Scope.Benchmark)
+    public static class Empty {
+        @Setup(Level.Invocation)
+        public void clear() {
+            CourseRepository.removeCourses(CourseRepository.courses());
+        }
+    }
+
+    @Benchmark
+    public boolean courseExists(Loaded loaded) {
+        return CourseRepository.courseExists(loaded.probes[loaded.next++ & (loaded.probes.length - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int addCourses(Catalog catalog, Empty empty) {
+        CourseRepository.addCourses(catalog.courses);
+        return CourseRepository.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.sanchit.timetable;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Solving a whole department term, as "batch --solve" does: every section gets a lecture and
+// lab slot with cohorts of five courses that may not clash and some instructors unavailable
+// on Monday, Wednesday and Friday mornings. The portfolio variant runs the default number
+// of seeded searches on a pool of every core, as the batch mode does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({ "1000", "3000", "6000" })
+    int sections;
+
+    TimetableSolver solver;
+    ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        List<Course> courses = CatalogGenerator.department(sections, 42);
+        solver = new TimetableSolver();
+        solver.schedule(courses);
+        for (List<Course> cohort : CatalogGenerator.cohorts(courses, 5, 42)) {
+            solver.addGroup(cohort);
+        }
+        for (int i = 0; i < sections / 3; i += 10) {
+            solver.setUnavailable("Dr. " + i, "MWF", "8:00 - 9:00");
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public TimetableSolver.Result solve() {
+        TimetableSolver.Result result = solver.solve();
+        if (!result.isSolved()) {
+            throw new IllegalStateException("Department not solved: " + result.status);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TimetableSolver.Result portfolio() throws InterruptedException {
+        TimetableSolver.Result result = new PortfolioSolver(solver, pool).solve();
+        if (!result.isSolved()) {
+            throw new IllegalStateException("Department not solved: " + result.status);
+        }
+        return result;
+    }
+}
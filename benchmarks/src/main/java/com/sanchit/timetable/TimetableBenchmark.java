@@ -0,0 +1,64 @@
+package com.sanchit.timetable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Rendering work of the timetable and course pages without opening any window: filling the
+// weekly grid used by StudentTimetablePage and InstructorTimetablePage, and formatting day
+// patterns for the StudentAddCoursePage course list
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TimetableBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    int catalogSize;
+
+    List<Course> catalog;
+
+    @Setup
+    public void setup() {
+        catalog = CatalogGenerator.courses(catalogSize, 42);
+    }
+
+    @Benchmark
+    public TimetableTableModel fillGrid() {
+        return new TimetableTableModel(catalog);
+    }
+
+    // Filling plus producing the text of every cell, as a full repaint would
+    @Benchmark
+    public int fillAndRenderGrid() {
+        TimetableTableModel model = new TimetableTableModel(catalog);
+        int length = 0;
+        for (int row = 0; row < model.getRowCount(); row++) {
+            for (int column = 0; column < model.getColumnCount(); column++) {
+                length += ((String) model.getValueAt(row, column)).length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int formatDayPatterns() {
+        int length = 0;
+        for (Course course : catalog) {
+            length += StudentAddCoursePage.formatDayPattern(course.lectureDays).length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,394 @@
+package com.sanchit.timetable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+
+// Command-line mode for bulk work on servers and in scripts, started with
+//   java ... com.sanchit.timetable.Main batch --catalog courses.csv [--enrollments enrollments.csv]
+//        [--out reports] [--threads N]
+//        [--solve [--availability availability.csv] [--groups groups.csv]
+//                 [--seed N] [--searches N]]
+// It never touches AWT or Swing: the catalog is imported on the calling thread, every course
+// is checked for instructor clashes and the lunch rule, and each student in the enrollment
+// file (studentId,courseCode[,section], one row per enrolled course) gets a timetable and a
+// list of problems. Reports are written as CSV files to the output directory and a summary
+// with the throughput of each phase is printed on stdout.
+//
+// With --solve the whole catalog is given new lecture and lab slots before anything is
+// checked, by a PortfolioSolver running --searches differently seeded TimetableSolver searches
+// at once on --threads workers; the same --seed gives the same timetable on any machine.
+// Instructors are kept out of the blocks in the availability file (instructor,days,time, one
+// row per block they cannot teach in), and the courses of each group in the groups file
+// (groupId,courseCode[,section], the enrollment layout, so an enrollment file can be passed as
+// is) never clash. The new timing goes to solved-catalog.csv in the import format.
+class BatchRunner {
+    private static final String USAGE = "Usage: batch --catalog <courses.csv> [--enrollments <enrollments.csv>]"
+            + " [--out <directory>] [--threads <n>]"
+            + " [--solve [--availability <availability.csv>] [--groups <groups.csv>] [--seed <n>]"
+            + " [--searches <n>]]";
+
+    private File catalog;
+    private File enrollments;
+    private File outDir = new File("reports");
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean solve;
+    private File availability;
+    private File groups;
+    private Long seed;
+    private Integer searches;
+
+    // Returns the process exit code: 0 when everything was valid, 1 when problems were
+    // reported, 2 for bad arguments or unreadable input
+    static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+        try {
+            return runner.execute();
+        } catch (Exception e) {
+            System.err.println("Batch run failed: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--solve")) {
+                // A flag, it takes no value
+                solve = true;
+                continue;
+            }
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--catalog" -> catalog = new File(require(args[i], value));
+                case "--enrollments" -> enrollments = new File(require(args[i], value));
+                case "--out" -> outDir = new File(require(args[i], value));
+                case "--availability" -> availability = new File(require(args[i], value));
+                case "--groups" -> groups = new File(require(args[i], value));
+                case "--seed" -> {
+                    try {
+                        seed = Long.parseLong(require(args[i], value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--seed needs a number");
+                    }
+                }
+                case "--searches" -> {
+                    try {
+                        searches = Math.max(1, Integer.parseInt(require(args[i], value)));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--searches needs a number");
+                    }
+                }
+                case "--threads" -> {
+                    try {
+                        threads = Math.max(1, Integer.parseInt(require(args[i], value)));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--threads needs a number");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            i++;
+        }
+        if (catalog == null) {
+            throw new IllegalArgumentException("--catalog is required");
+        }
+        if (!solve && (availability != null || groups != null || seed != null || searches != null)) {
+            throw new IllegalArgumentException("--availability, --groups, --seed and --searches need --solve");
+        }
+    }
+
+    private static String require(String option, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return value;
+    }
+
+    private int execute() throws Exception {
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new IOException("Cannot create " + outDir);
+        }
+
+        long start = System.nanoTime();
+        int added = CourseCsvImporter.importFile(catalog);
+        report("Imported", added, "courses", start);
+
+        int solveProblems = 0;
+        if (solve) {
+            start = System.nanoTime();
+            solveProblems = solveCatalog(new File(outDir, "solved-catalog.csv"));
+            report("Solved", CourseRepository.size(), "courses", start);
+        }
+
+        start = System.nanoTime();
+        int catalogProblems = validateCatalog(new File(outDir, "catalog-problems.csv"));
+        report("Validated", CourseRepository.size(), "courses", start);
+        System.out.println("  " + catalogProblems + " catalog problems");
+
+        int enrollmentProblems = 0;
+        if (enrollments != null) {
+            start = System.nanoTime();
+            Map<String, List<String[]>> students = readEnrollments(enrollments);
+            enrollmentProblems = writeTimetables(students, new File(outDir, "timetables.csv"),
+                    new File(outDir, "enrollment-problems.csv"));
+            report("Scheduled", students.size(), "students", start);
+            System.out.println("  " + enrollmentProblems + " enrollment problems");
+        }
+        System.out.println("Reports written to " + outDir.getAbsolutePath());
+        return solveProblems + catalogProblems + enrollmentProblems == 0 ? 0 : 1;
+    }
+
+    // Give every course of the repository new slots, apply them and write the solved catalog.
+    // Returns 0 when solved, 1 when no timetable was found (the repository is left as it was).
+    private int solveCatalog(File output) throws Exception {
+        TimetableSolver solver = new TimetableSolver();
+        solver.schedule(CourseRepository.courses());
+        if (availability != null) {
+            readAvailability(availability, solver);
+        }
+        int groupCount = 0;
+        if (groups != null) {
+            for (Map.Entry<String, List<String[]>> group : readEnrollments(groups).entrySet()) {
+                List<Course> courses = new ArrayList<>();
+                for (String[] row : group.getValue()) {
+                    Course course = resolve(row[1], row.length > 2 ? row[2] : "");
+                    if (course == null) {
+                        throw new IOException("Group " + group.getKey() + " has unknown course " + row[1]);
+                    }
+                    courses.add(course);
+                }
+                solver.addGroup(courses);
+                groupCount++;
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        TimetableSolver.Result result;
+        try {
+            PortfolioSolver portfolio = new PortfolioSolver(solver, pool);
+            if (seed != null) {
+                portfolio.setSeed(seed);
+            }
+            if (searches != null) {
+                portfolio.setSearches(searches);
+            }
+            result = portfolio.solve();
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("  " + result.status + " with " + groupCount + " groups after " + result.backtracks
+                + " backtracks");
+        if (!result.isSolved()) {
+            return 1;
+        }
+        result.applyToRepository();
+        try (CSVWriter out = new CSVWriter(new BufferedWriter(new FileWriter(output)))) {
+            out.writeNext(new String[] { "code", "name", "lectureSection", "labSection", "hasLab", "lectures",
+                    "lectureDays", "lectureTime", "labDays", "labTime", "instructorName" });
+            for (Course c : CourseRepository.courses()) {
+                out.writeNext(new String[] { c.courseCode, c.courseName, c.lectureSection, c.labSection,
+                        String.valueOf(c.hasLab), String.valueOf(c.lectureCount), c.lectureDays, c.lectureTime,
+                        c.labDays, c.labTime, c.instructorName });
+            }
+        }
+        return 0;
+    }
+
+    // Blocks instructors cannot teach in, one instructor,days,time row each
+    private static void readAvailability(File file, TimetableSolver solver) throws Exception {
+        try (CSVReader reader = new CSVReader(new FileReader(file))) {
+            if (reader.readNext() == null) {
+                throw new IOException("Availability file is empty");
+            }
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 3 || line[0].isEmpty()) {
+                    continue;
+                }
+                if (!WeekOccupancy.isReadable(line[1], line[2])) {
+                    throw new IOException("Unrecognized availability timing for " + line[0] + ": " + line[1] + " "
+                            + line[2]);
+                }
+                solver.setUnavailable(line[0], line[1], line[2]);
+            }
+        }
+    }
+
+    private static void report(String phase, long count, String unit, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%s %d %s in %.3f s (%.0f %s/s)%n", phase, count, unit, seconds,
+                seconds > 0 ? count / seconds : 0.0, unit);
+    }
+
+    // Instructors teaching two overlapping courses, instructors left without a lunch hour,
+    // and timings that could not be read
+    private int validateCatalog(File output) throws IOException {
+        List<Course> courses = CourseRepository.courses();
+        Map<Course, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < courses.size(); i++) {
+            position.putIfAbsent(courses.get(i), i);
+        }
+
+        int problems = 0;
+        try (CSVWriter out = new CSVWriter(new BufferedWriter(new FileWriter(output)))) {
+            out.writeNext(new String[] { "courseCode", "section", "instructor", "problem", "otherCourse",
+                    "otherSection" });
+            Map<String, int[]> lunchByInstructor = new HashMap<>();
+            for (int i = 0; i < courses.size(); i++) {
+                Course course = courses.get(i);
+                String timingProblem = course.timingProblem();
+                if (timingProblem != null) {
+                    out.writeNext(new String[] { course.courseCode, course.lectureSection, course.instructorName,
+                            timingProblem, "", "" });
+                    problems++;
+                    if (course.occupancy.isEmpty()) {
+                        continue;
+                    }
+                }
+                for (Course other : CourseRepository.findConflicts(course)) {
+                    // Each clashing pair is reported once, from its earlier course
+                    if (position.getOrDefault(other, -1) > i
+                            && course.instructorName.equals(other.instructorName)) {
+                        out.writeNext(new String[] { course.courseCode, course.lectureSection,
+                                course.instructorName, "Instructor clash", other.courseCode, other.lectureSection });
+                        problems++;
+                    }
+                }
+                int[] lunch = lunchByInstructor.computeIfAbsent(course.instructorName, k -> new int[2]);
+                lunch[0] |= TimetableSolver.lunchDays(course.occupancy, TimetableSolver.EARLY_LUNCH);
+                lunch[1] |= TimetableSolver.lunchDays(course.occupancy, TimetableSolver.LATE_LUNCH);
+            }
+            for (Map.Entry<String, int[]> e : lunchByInstructor.entrySet()) {
+                int days = e.getValue()[0] & e.getValue()[1];
+                if (days != 0) {
+                    out.writeNext(new String[] { "", "", e.getKey(), "No lunch hour on " + dayNames(days), "", "" });
+                    problems++;
+                }
+            }
+        }
+        return problems;
+    }
+
+    // Enrollment rows grouped by student, in order of first appearance
+    private static Map<String, List<String[]>> readEnrollments(File file) throws Exception {
+        Map<String, List<String[]>> students = new LinkedHashMap<>();
+        try (CSVReader reader = new CSVReader(new FileReader(file))) {
+            if (reader.readNext() == null) {
+                throw new IOException("Enrollment file is empty");
+            }
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length >= 2 && !line[0].isEmpty()) {
+                    students.computeIfAbsent(line[0], k -> new ArrayList<>()).add(line);
+                }
+            }
+        }
+        return students;
+    }
+
+    // Students are resolved and checked in parallel; the rows are written in input order
+    private int writeTimetables(Map<String, List<String[]>> students, File timetableFile, File problemFile)
+            throws Exception {
+        List<String> ids = new ArrayList<>(students.keySet());
+        StudentResult[] results = new StudentResult[ids.size()];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, ids.size()).parallel()
+                    .forEach(i -> results[i] = schedule(ids.get(i), students.get(ids.get(i)))))
+                    .get();
+        } finally {
+            pool.shutdown();
+        }
+
+        int problems = 0;
+        try (CSVWriter timetables = new CSVWriter(new BufferedWriter(new FileWriter(timetableFile)));
+                CSVWriter problemRows = new CSVWriter(new BufferedWriter(new FileWriter(problemFile)))) {
+            timetables.writeNext(new String[] { "studentId", "courseCode", "section", "kind", "days", "time",
+                    "instructor" });
+            problemRows.writeNext(new String[] { "studentId", "problem", "courseCode", "otherCourse" });
+            for (StudentResult result : results) {
+                for (String[] row : result.timetable) {
+                    timetables.writeNext(row);
+                }
+                for (String[] row : result.problems) {
+                    problemRows.writeNext(row);
+                }
+                problems += result.problems.size();
+            }
+        }
+        return problems;
+    }
+
+    private static StudentResult schedule(String studentId, List<String[]> rows) {
+        StudentResult result = new StudentResult();
+        List<Course> enrolled = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            Course course = resolve(row[1], row.length > 2 ? row[2] : "");
+            if (course == null) {
+                result.problems.add(new String[] { studentId, "Unknown course or section", row[1], "" });
+                continue;
+            }
+            for (Course other : enrolled) {
+                if (course.hasTimeConflict(other)) {
+                    result.problems.add(new String[] { studentId, "Time conflict", course.courseCode,
+                            other.courseCode });
+                }
+            }
+            enrolled.add(course);
+            result.timetable.add(new String[] { studentId, course.courseCode, course.lectureSection, "Lecture",
+                    course.lectureDays, course.lectureTime, course.instructorName });
+            if (course.hasLab) {
+                result.timetable.add(new String[] { studentId, course.courseCode, course.labSection, "Lab",
+                        course.labDays, course.labTime, course.instructorName });
+            }
+        }
+        return result;
+    }
+
+    // The given lecture section of a course, or its first section when none is given
+    private static Course resolve(String courseCode, String section) {
+        for (Course course : CourseRepository.findByCode(courseCode)) {
+            if (section.isEmpty() || course.lectureSection.equals(section)) {
+                return course;
+            }
+        }
+        return null;
+    }
+
+    private static String dayNames(int days) {
+        String[] names = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
+        StringBuilder sb = new StringBuilder();
+        for (int day = 0; day < names.length; day++) {
+            if ((days & (1 << day)) != 0) {
+                sb.append(sb.length() > 0 ? ", " : "").append(names[day]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static class StudentResult {
+        final List<String[]> timetable = new ArrayList<>();
+        final List<String[]> problems = new ArrayList<>();
+    }
+}
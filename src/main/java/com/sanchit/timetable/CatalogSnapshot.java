@@ -0,0 +1,149 @@
+package com.sanchit.timetable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+// Immutable view of the CourseRepository at one version: its courses in insertion order, the
+// conflict index over them and the hash indexes by code, instructor and section. Snapshots are
+// published by the single writer and read without locks; a snapshot never changes after it was
+// taken, whatever the writer does next.
+final class CatalogSnapshot {
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, Slice.EMPTY, new CourseIntervalIndex().snapshot(),
+            new SliceIndex().snapshot(), new SliceIndex().snapshot(), new SliceIndex().snapshot());
+
+    private final long version;
+    private final Slice courses;
+    private final CourseIntervalIndex conflictIndex;
+    private final SliceIndex byCode, byInstructor, bySection;
+    private final List<Course> list;
+
+    CatalogSnapshot(long version, Slice courses, CourseIntervalIndex conflictIndex, SliceIndex byCode,
+            SliceIndex byInstructor, SliceIndex bySection) {
+        this.version = version;
+        this.courses = courses;
+        this.conflictIndex = conflictIndex;
+        this.byCode = byCode;
+        this.byInstructor = byInstructor;
+        this.bySection = bySection;
+        this.list = new CourseList();
+    }
+
+    long version() {
+        return version;
+    }
+
+    int size() {
+        return courses.size;
+    }
+
+    // The courses in the order they were added, as an unmodifiable list
+    List<Course> courses() {
+        return list;
+    }
+
+    // Every course of this snapshot whose lectures or labs overlap the candidate
+    List<Course> findConflicts(Course candidate) {
+        return conflictIndex.findOverlapping(candidate);
+    }
+
+    // Courses of this snapshot meeting on the day between start and end (minutes)
+    List<Course> findOverlapping(int day, int start, int end) {
+        return conflictIndex.findOverlapping(day, start, end);
+    }
+
+    // All sections offered under a course code
+    List<Course> findByCode(String courseCode) {
+        return lookup(byCode, courseCode);
+    }
+
+    // All sections taught by an instructor
+    List<Course> findByInstructor(String instructorName) {
+        return lookup(byInstructor, instructorName);
+    }
+
+    // All courses with the given lecture or lab section label
+    List<Course> findBySection(String section) {
+        return lookup(bySection, section);
+    }
+
+    boolean hasCode(String courseCode) {
+        return courseCode != null && byCode.containsKey(courseCode);
+    }
+
+    private static List<Course> lookup(SliceIndex index, String key) {
+        Slice courses = key == null ? null : index.get(key);
+        return courses == null ? Collections.emptyList() : courses.asList();
+    }
+
+    // Immutable run of courses. Appending writes into spare room of the shared array, which
+    // no earlier slice can see, so only removals and replacements copy; only the writer
+    // creates slices.
+    static final class Slice {
+        static final Slice EMPTY = new Slice(new Course[0], 0);
+
+        final Course[] items;
+        final int size;
+
+        Slice(Course[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        Slice append(Course course) {
+            Course[] target = items;
+            if (size == target.length) {
+                target = Arrays.copyOf(items, Math.max(4, size * 2));
+            }
+            target[size] = course;
+            return new Slice(target, size + 1);
+        }
+
+        Slice without(Predicate<Course> drop) {
+            Course[] kept = new Course[items.length];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!drop.test(items[i])) {
+                    kept[n++] = items[i];
+                }
+            }
+            return n == size ? this : new Slice(kept, n);
+        }
+
+        // The slice with the courses that are keys of the identity map swapped for their values
+        Slice replacing(Map<Course, Course> replacements) {
+            Course[] copy = null;
+            for (int i = 0; i < size; i++) {
+                Course replacement = replacements.get(items[i]);
+                if (replacement != null) {
+                    if (copy == null) {
+                        copy = Arrays.copyOf(items, items.length);
+                    }
+                    copy[i] = replacement;
+                }
+            }
+            return copy == null ? this : new Slice(copy, size);
+        }
+
+        List<Course> asList() {
+            return Collections.unmodifiableList(Arrays.asList(items).subList(0, size));
+        }
+    }
+
+    private final class CourseList extends AbstractList<Course> implements RandomAccess {
+        public Course get(int index) {
+            if (index < 0 || index >= courses.size) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + courses.size);
+            }
+            return courses.items[index];
+        }
+
+        public int size() {
+            return courses.size;
+        }
+    }
+}
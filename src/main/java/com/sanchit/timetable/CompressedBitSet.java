@@ -0,0 +1,101 @@
+package com.sanchit.timetable;
+
+import java.util.Arrays;
+
+// Set of non-negative ints stored as a sorted array while it is sparse and as a plain
+// bitmap once the array would take more room than the bitmap
+final class CompressedBitSet {
+    private int[] sorted = new int[0];
+    private long[] words;
+    private int cardinality;
+
+    boolean get(int i) {
+        if (words != null) {
+            int w = i >>> 6;
+            return w < words.length && (words[w] & (1L << i)) != 0;
+        }
+        return Arrays.binarySearch(sorted, 0, cardinality, i) >= 0;
+    }
+
+    void set(int i) {
+        if (words != null) {
+            int w = i >>> 6;
+            if (w >= words.length) {
+                words = Arrays.copyOf(words, Math.max(w + 1, words.length * 2));
+            }
+            if ((words[w] & (1L << i)) == 0) {
+                words[w] |= 1L << i;
+                cardinality++;
+            }
+            return;
+        }
+        int pos = Arrays.binarySearch(sorted, 0, cardinality, i);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (cardinality == sorted.length) {
+            sorted = Arrays.copyOf(sorted, Math.max(4, cardinality * 2));
+        }
+        System.arraycopy(sorted, pos, sorted, pos + 1, cardinality - pos);
+        sorted[pos] = i;
+        cardinality++;
+        // An int per member against a bit per possible member
+        if ((long) cardinality * 32 > sorted[cardinality - 1] + 64) {
+            toBitmap();
+        }
+    }
+
+    void clear(int i) {
+        if (words != null) {
+            int w = i >>> 6;
+            if (w < words.length && (words[w] & (1L << i)) != 0) {
+                words[w] &= ~(1L << i);
+                cardinality--;
+            }
+            return;
+        }
+        int pos = Arrays.binarySearch(sorted, 0, cardinality, i);
+        if (pos >= 0) {
+            System.arraycopy(sorted, pos + 1, sorted, pos, cardinality - pos - 1);
+            cardinality--;
+        }
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    // Smallest member that is at least from, or -1
+    int nextSetBit(int from) {
+        if (words != null) {
+            int w = from >>> 6;
+            if (w >= words.length) {
+                return -1;
+            }
+            long word = words[w] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+                if (++w == words.length) {
+                    return -1;
+                }
+                word = words[w];
+            }
+        }
+        int pos = Arrays.binarySearch(sorted, 0, cardinality, from);
+        if (pos < 0) {
+            pos = -pos - 1;
+        }
+        return pos < cardinality ? sorted[pos] : -1;
+    }
+
+    private void toBitmap() {
+        words = new long[(sorted[cardinality - 1] >>> 6) + 1];
+        for (int k = 0; k < cardinality; k++) {
+            words[sorted[k] >>> 6] |= 1L << sorted[k];
+        }
+        sorted = null;
+    }
+}
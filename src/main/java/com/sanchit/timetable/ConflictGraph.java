@@ -0,0 +1,142 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Graph of time clashes between the courses in the CourseRepository. Every course gets a
+// small integer id and its clashing courses are kept as a compressed bitset of ids, so
+// "how many sections clash with X" is a cardinality lookup and listing all clashing pairs
+// walks only the edges. The graph follows the repository through its listener: only the
+// added, removed or changed courses are re-examined, using the repository's interval index.
+class ConflictGraph implements CourseRepository.CourseRepositoryListener {
+    private static ConflictGraph shared;
+
+    private final Map<Course, Integer> ids = new IdentityHashMap<>();
+    private final List<Course> nodes = new ArrayList<>();
+    private final List<CompressedBitSet> adjacency = new ArrayList<>();
+    private final ArrayDeque<Integer> freeIds = new ArrayDeque<>();
+    private long edgeCount;
+
+    // Graph over the current repository contents, kept up to date from now on
+    static synchronized ConflictGraph shared() {
+        if (shared == null) {
+            shared = new ConflictGraph();
+            CourseRepository.addListenerAndReplay(shared);
+        }
+        return shared;
+    }
+
+    public void coursesUpdated() {
+    }
+
+    public synchronized void coursesAdded(List<Course> courses) {
+        for (Course course : courses) {
+            if (!ids.containsKey(course)) {
+                addNode(course);
+                connect(course);
+            }
+        }
+    }
+
+    public synchronized void coursesRemoved(List<Course> courses) {
+        for (Course course : courses) {
+            Integer id = ids.remove(course);
+            if (id != null) {
+                disconnect(id);
+                nodes.set(id, null);
+                freeIds.push(id);
+            }
+        }
+    }
+
+    public synchronized void coursesChanged(List<Course> courses) {
+        for (Course course : courses) {
+            Integer id = ids.get(course);
+            if (id != null) {
+                disconnect(id);
+                connect(course);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+
+    synchronized long edgeCount() {
+        return edgeCount;
+    }
+
+    // Number of courses that clash with the given one
+    synchronized int conflictCount(Course course) {
+        Integer id = ids.get(course);
+        return id == null ? 0 : adjacency.get(id).cardinality();
+    }
+
+    synchronized List<Course> conflictsOf(Course course) {
+        Integer id = ids.get(course);
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        CompressedBitSet neighbours = adjacency.get(id);
+        List<Course> result = new ArrayList<>(neighbours.cardinality());
+        for (int i = neighbours.nextSetBit(0); i >= 0; i = neighbours.nextSetBit(i + 1)) {
+            result.add(nodes.get(i));
+        }
+        return result;
+    }
+
+    // Every clashing pair once, as { course, other course }
+    synchronized List<Course[]> clashingPairs() {
+        List<Course[]> pairs = new ArrayList<>((int) Math.min(edgeCount, Integer.MAX_VALUE));
+        for (int id = 0; id < nodes.size(); id++) {
+            if (nodes.get(id) == null) {
+                continue;
+            }
+            CompressedBitSet neighbours = adjacency.get(id);
+            for (int i = neighbours.nextSetBit(id + 1); i >= 0; i = neighbours.nextSetBit(i + 1)) {
+                pairs.add(new Course[] { nodes.get(id), nodes.get(i) });
+            }
+        }
+        return pairs;
+    }
+
+    private void addNode(Course course) {
+        Integer id = freeIds.poll();
+        if (id == null) {
+            id = nodes.size();
+            nodes.add(course);
+            adjacency.add(new CompressedBitSet());
+        } else {
+            nodes.set(id, course);
+        }
+        ids.put(course, id);
+    }
+
+    private void connect(Course course) {
+        int id = ids.get(course);
+        CompressedBitSet neighbours = adjacency.get(id);
+        for (Course other : CourseRepository.findConflicts(course)) {
+            Integer otherId = ids.get(other);
+            // Courses of the same batch that are not in the graph yet connect when they are added
+            if (otherId != null && !neighbours.get(otherId)) {
+                neighbours.set(otherId);
+                adjacency.get(otherId).set(id);
+                edgeCount++;
+            }
+        }
+    }
+
+    private void disconnect(int id) {
+        CompressedBitSet neighbours = adjacency.get(id);
+        for (int i = neighbours.nextSetBit(0); i >= 0; i = neighbours.nextSetBit(i + 1)) {
+            adjacency.get(i).clear(id);
+            edgeCount--;
+        }
+        adjacency.set(id, new CompressedBitSet());
+    }
+}
@@ -0,0 +1,293 @@
+package com.sanchit.timetable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+// Read-only table over the courses in the CourseRepository that copies nothing per row:
+// the visible rows are an int array of positions in a repository snapshot, and cell text is
+// produced only when JTable asks for a visible cell.
+//
+// Sorting uses one precomputed order per column (built on first use, dropped when the
+// repository changes), so switching columns or direction is a pass over an int array.
+// Filtering matches the text case-insensitively against code, name, instructor and section.
+// Text with a word of three or more characters is looked up in the CourseSearchIndex and only
+// the courses it returns are checked; shorter text is checked row by row, and a filter that
+// extends the previous one only rescans the rows that are still visible. Courses added to the
+// repository are appended to the view without rescanning the catalog.
+class CourseCatalogTableModel extends AbstractTableModel implements CourseRepository.CourseRepositoryListener {
+    static final String[] COLUMN_NAMES = { "Course Code", "Course Name", "Instructor", "Schedule", "Section" };
+    static final int CODE = 0, NAME = 1, INSTRUCTOR = 2, SCHEDULE = 3, SECTION = 4;
+
+    private CatalogSnapshot snapshot;
+    private List<Course> source;
+    private final int[][] sortedOrders = new int[COLUMN_NAMES.length][];
+    // Position of each course in the source, built on the first indexed filter
+    private Map<Course, Integer> positions;
+    private int[] view = new int[0];
+    private int viewSize;
+    private int sortColumn = -1;
+    private boolean descending;
+    private String filter = "";
+
+    CourseCatalogTableModel() {
+        snapshot = CourseRepository.snapshot();
+        source = snapshot.courses();
+        rebuild();
+    }
+
+    public int getRowCount() {
+        return viewSize;
+    }
+
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    public Object getValueAt(int row, int column) {
+        Course course = getCourseAt(row);
+        switch (column) {
+            case CODE:
+                return course.courseCode;
+            case NAME:
+                return course.courseName;
+            case INSTRUCTOR:
+                return course.instructorName;
+            case SCHEDULE:
+                return DayPattern.of(course.lectureDays).format() + " " + course.lectureTime;
+            default:
+                return course.lectureSection;
+        }
+    }
+
+    // The course shown in a row of the (filtered, sorted) table
+    Course getCourseAt(int row) {
+        return source.get(view[row]);
+    }
+
+    int getSortColumn() {
+        return sortColumn;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    // Sort by the column, or flip the direction when it is already the sort column
+    void toggleSort(int column) {
+        if (column == sortColumn) {
+            descending = !descending;
+        } else {
+            sortColumn = column;
+            descending = false;
+        }
+        rebuild();
+    }
+
+    void setFilter(String text) {
+        String newFilter = text == null ? "" : text.trim();
+        boolean narrowing = !filter.isEmpty() && containsIgnoreCase(newFilter, filter);
+        filter = newFilter;
+        BitSet indexed = filter.isEmpty() ? null : indexedMatches();
+        if (indexed != null) {
+            rebuild(indexed);
+        } else if (narrowing) {
+            // Every row matching the new text also matched the old one
+            int kept = 0;
+            for (int i = 0; i < viewSize; i++) {
+                if (matches(source.get(view[i]))) {
+                    view[kept++] = view[i];
+                }
+            }
+            viewSize = kept;
+            fireTableDataChanged();
+        } else {
+            rebuild();
+        }
+    }
+
+    public void coursesUpdated() {
+        Runnable refresh = () -> {
+            snapshot = CourseRepository.snapshot();
+            source = snapshot.courses();
+            Arrays.fill(sortedOrders, null);
+            positions = null;
+            rebuild();
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            refresh.run();
+        } else {
+            SwingUtilities.invokeLater(refresh);
+        }
+    }
+
+    // Courses appended to the repository only extend the view; anything that moves positions
+    // (removals) or may reorder rows (sorting, a filter over changed fields) rebuilds it.
+    // Events already covered by the snapshot shown are ignored.
+    public void repositoryChanged(CourseChangeEvent event) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> repositoryChanged(event));
+            return;
+        }
+        if (event.toVersion() <= snapshot.version()) {
+            return;
+        }
+        CatalogSnapshot latest = CourseRepository.snapshot();
+        boolean appendOnly = event.fromVersion() == snapshot.version() && latest.version() == event.toVersion()
+                && event.removed().isEmpty() && sortColumn < 0;
+        if (!appendOnly || (!event.changed().isEmpty() && !filter.isEmpty())) {
+            coursesUpdated();
+            return;
+        }
+        int from = source.size();
+        snapshot = latest;
+        source = latest.courses();
+        Arrays.fill(sortedOrders, null);
+        positions = null;
+        int first = viewSize;
+        int n = source.size();
+        if (view.length < viewSize + n - from) {
+            view = Arrays.copyOf(view, Math.max(n, view.length * 2));
+        }
+        for (int i = from; i < n; i++) {
+            if (filter.isEmpty() || matches(source.get(i))) {
+                view[viewSize++] = i;
+            }
+        }
+        if (!event.changed().isEmpty()) {
+            fireTableDataChanged();
+        } else if (viewSize > first) {
+            fireTableRowsInserted(first, viewSize - 1);
+        }
+    }
+
+    private void rebuild() {
+        rebuild(filter.isEmpty() ? null : indexedMatches());
+    }
+
+    // Rows matching the filter, taken from the bit set of their positions when there is one
+    private void rebuild(BitSet indexed) {
+        int n = source.size();
+        int[] order = sortColumn >= 0 ? sortedOrder(sortColumn) : null;
+        if (view.length < n) {
+            view = new int[n];
+        }
+        int size = 0;
+        if (indexed != null && order == null) {
+            for (int index = indexed.nextSetBit(0); index >= 0; index = indexed.nextSetBit(index + 1)) {
+                view[size++] = index;
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                int index = order == null ? i : order[descending ? n - 1 - i : i];
+                if (indexed != null ? indexed.get(index) : filter.isEmpty() || matches(source.get(index))) {
+                    view[size++] = index;
+                }
+            }
+        }
+        viewSize = size;
+        fireTableDataChanged();
+    }
+
+    // Positions of the courses matching the filter, or null when the search index cannot
+    // narrow it down
+    private BitSet indexedMatches() {
+        List<Course> candidates = CourseSearchIndex.shared().containing(filter);
+        if (candidates == null) {
+            return null;
+        }
+        if (positions == null) {
+            positions = new IdentityHashMap<>(source.size() * 2);
+            for (int i = 0; i < source.size(); i++) {
+                positions.put(source.get(i), i);
+            }
+        }
+        BitSet matching = new BitSet(source.size());
+        for (Course course : candidates) {
+            Integer index = positions.get(course);
+            if (index != null && matches(course)) {
+                matching.set(index);
+            }
+        }
+        return matching;
+    }
+
+    private int[] sortedOrder(int column) {
+        int[] order = sortedOrders[column];
+        if (order == null || order.length != source.size()) {
+            order = column == SCHEDULE ? scheduleOrder(source) : textOrder(source, column);
+            sortedOrders[column] = order;
+        }
+        return order;
+    }
+
+    // Week order of the first meeting day, then start time. The key and the position are
+    // packed into one long so the sort runs on primitives.
+    private static int[] scheduleOrder(List<Course> courses) {
+        long[] keys = new long[courses.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Course course = courses.get(i);
+            TimeSlot slot = TimeSlot.of(course.lectureTime);
+            long day = Integer.numberOfTrailingZeros(DayPattern.of(course.lectureDays).mask());
+            long key = day * 24 * 60 + (slot == null ? 24 * 60 - 1 : slot.start());
+            keys[i] = key << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static int[] textOrder(List<Course> courses, int column) {
+        Comparator<String> comparator = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+        String[] keys = new String[courses.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Course course = courses.get(i);
+            keys[i] = switch (column) {
+                case CODE -> course.courseCode;
+                case NAME -> course.courseName;
+                case INSTRUCTOR -> course.instructorName;
+                default -> course.lectureSection;
+            };
+        }
+        return IntStream.range(0, keys.length).boxed()
+                .sorted((a, b) -> comparator.compare(keys[a], keys[b]))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    private boolean matches(Course course) {
+        return containsIgnoreCase(course.courseCode, filter)
+                || containsIgnoreCase(course.courseName, filter)
+                || containsIgnoreCase(course.instructorName, filter)
+                || containsIgnoreCase(course.lectureSection, filter);
+    }
+
+    private static boolean containsIgnoreCase(String text, String part) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i + part.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,140 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// What changed in the CourseRepository between two versions. Each course appears in at most
+// one of the lists: a course added and then removed within the same event is left out, a
+// course added and then changed is only listed as added, and a course removed and added back
+// is listed as changed.
+final class CourseChangeEvent {
+    private final long fromVersion;
+    private final long toVersion;
+    private final List<Course> added;
+    private final List<Course> removed;
+    private final List<Course> changed;
+
+    CourseChangeEvent(long fromVersion, long toVersion, List<Course> added, List<Course> removed,
+            List<Course> changed) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.changed = Collections.unmodifiableList(changed);
+    }
+
+    // Repository version before the first change in this event
+    long fromVersion() {
+        return fromVersion;
+    }
+
+    // Repository version after the last change in this event
+    long toVersion() {
+        return toVersion;
+    }
+
+    List<Course> added() {
+        return added;
+    }
+
+    List<Course> removed() {
+        return removed;
+    }
+
+    // Courses removed and added back between the two versions
+    List<Course> changed() {
+        return changed;
+    }
+
+    boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    // Number of courses the event mentions
+    int size() {
+        return added.size() + removed.size() + changed.size();
+    }
+
+    public String toString() {
+        return "CourseChangeEvent[" + fromVersion + " -> " + toVersion + ": +" + added.size() + " -"
+                + removed.size() + " ~" + changed.size() + "]";
+    }
+
+    // Folds consecutive events into one. Work is proportional to the number of courses in the
+    // merged events, so a burst of single-course events costs the same as one batch.
+    static final class Coalescer {
+        private static final byte ADDED = 1, REMOVED = 2, CHANGED = 3;
+
+        private final Map<Course, Byte> state = new IdentityHashMap<>();
+        // Courses in the order they were first mentioned
+        private final List<Course> order = new ArrayList<>();
+        private long fromVersion = -1;
+        private long toVersion = -1;
+
+        boolean isEmpty() {
+            return fromVersion < 0;
+        }
+
+        void merge(CourseChangeEvent event) {
+            if (fromVersion < 0) {
+                fromVersion = event.fromVersion;
+            }
+            toVersion = event.toVersion;
+            for (Course course : event.removed) {
+                Byte before = state.get(course);
+                if (before == null) {
+                    mention(course, REMOVED);
+                } else if (before == ADDED) {
+                    // Never seen by the listener, drop it again
+                    state.remove(course);
+                } else {
+                    state.put(course, REMOVED);
+                }
+            }
+            for (Course course : event.added) {
+                Byte before = state.get(course);
+                if (before == null) {
+                    mention(course, ADDED);
+                } else if (before == REMOVED) {
+                    state.put(course, CHANGED);
+                }
+            }
+            for (Course course : event.changed) {
+                if (!state.containsKey(course)) {
+                    mention(course, CHANGED);
+                }
+            }
+        }
+
+        // The merged event, leaving the coalescer empty
+        CourseChangeEvent drain() {
+            List<Course> added = new ArrayList<>();
+            List<Course> removed = new ArrayList<>();
+            List<Course> changed = new ArrayList<>();
+            for (Course course : order) {
+                Byte kind = state.remove(course);
+                if (kind == null) {
+                    continue;
+                }
+                switch (kind) {
+                    case ADDED -> added.add(course);
+                    case REMOVED -> removed.add(course);
+                    default -> changed.add(course);
+                }
+            }
+            CourseChangeEvent event = new CourseChangeEvent(fromVersion, toVersion, added, removed, changed);
+            order.clear();
+            fromVersion = -1;
+            toVersion = -1;
+            return event;
+        }
+
+        private void mention(Course course, byte kind) {
+            state.put(course, kind);
+            order.add(course);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.sanchit.timetable;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+// Reads course catalogs in the admin CSV format:
+// code,name,lectureSection,labSection,hasLab,lectures,lectureDays,lectureTime,labDays,labTime,instructorName
+// (rows with 6 or 9 columns use the Course defaults for the missing timing fields).
+// Rows are streamed in bounded chunks so a large file never has to be held in memory.
+class CourseCsvImporter {
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+    // Files at least this big are split at record boundaries and parsed on all cores
+    static final long PARALLEL_THRESHOLD = 4L * ParallelCourseCsvParser.DEFAULT_PIECE_SIZE;
+
+    // Receives each parsed chunk along with how far into the file the reader is
+    interface ChunkHandler {
+        // Return false to stop reading
+        boolean accept(List<Course> chunk, long bytesRead) throws Exception;
+    }
+
+    // Build a course from one CSV row, or null if the row has too few columns
+    static Course parseRow(String[] line) {
+        if (line.length < 6) {
+            return null;
+        }
+        String code = line[0];
+        String name = line[1];
+        String lectureSection = line[2];
+        String labSection = line[3];
+        boolean hasLab = Boolean.parseBoolean(line[4]);
+        int lectures = Integer.parseInt(line[5]);
+
+        if (line.length >= 11) {
+            // Full layout: lab timing comes before the instructor, as in the header
+            return new Course(code, name, lectureSection, labSection, hasLab, lectures,
+                    line[6], line[7], line[8], line[9], line[10]);
+        }
+        if (line.length >= 9) {
+            return new Course(code, name, lectureSection, labSection, hasLab, lectures,
+                    line[6], line[7], line[8]);
+        }
+        return new Course(code, name, lectureSection, labSection, hasLab, lectures);
+    }
+
+    // Stream the file to the handler in chunks of at most chunkSize courses.
+    // Returns the number of courses parsed.
+    static int stream(File csvFile, int chunkSize, ChunkHandler handler) throws Exception {
+        int count = 0;
+        try (CountingInputStream in = new CountingInputStream(new BufferedInputStream(new FileInputStream(csvFile)));
+                CSVReader reader = new CSVReader(new InputStreamReader(in))) {
+            // Skip header line
+            String[] header = reader.readNext();
+            if (header == null) {
+                throw new IOException("CSV file is empty");
+            }
+
+            List<Course> chunk = new ArrayList<>(chunkSize);
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                Course course = parseRow(line);
+                if (course == null) {
+                    continue;
+                }
+                chunk.add(course);
+                count++;
+                if (chunk.size() == chunkSize) {
+                    if (!handler.accept(chunk, in.count)) {
+                        return count;
+                    }
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                handler.accept(chunk, in.count);
+            }
+        }
+        return count;
+    }
+
+    // Stream the file with the reader picked by the "timetable.csv.reader" system property:
+    // "stream" (opencsv), "mapped" (memory-mapped) or "parallel" (fork-join). By default big
+    // files are parsed in parallel and everything else is streamed.
+    static int streamFile(File csvFile, int chunkSize, ChunkHandler handler) throws Exception {
+        String mode = System.getProperty("timetable.csv.reader", "auto");
+        switch (mode) {
+            case "mapped":
+                return new MappedCourseCsvReader().stream(csvFile, chunkSize, handler);
+            case "parallel":
+                return new ParallelCourseCsvParser().stream(csvFile, chunkSize, handler);
+            case "stream":
+                return stream(csvFile, chunkSize, handler);
+            default:
+                if (csvFile.length() >= PARALLEL_THRESHOLD) {
+                    return new ParallelCourseCsvParser().stream(csvFile, chunkSize, handler);
+                }
+                return stream(csvFile, chunkSize, handler);
+        }
+    }
+
+    // Add the courses of a chunk that are not in the repository yet, with a single
+    // listener notification. Returns how many were added.
+    static int commitChunk(List<Course> chunk) {
+        List<Course> fresh = new ArrayList<>(chunk.size());
+        Set<String> seen = new HashSet<>();
+        for (Course course : chunk) {
+            if (!CourseRepository.sectionExists(course.courseCode, course.lectureSection)
+                    && seen.add(course.courseCode + '\u0000' + course.lectureSection)) {
+                fresh.add(course);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            CourseRepository.addCourses(fresh);
+        }
+        return fresh.size();
+    }
+
+    // Import the whole file on the calling thread, telling listeners about it in one event.
+    // Returns the number of courses added.
+    static int importFile(File csvFile) throws IOException, CsvValidationException {
+        int[] added = { 0 };
+        CourseRepository.beginBatch();
+        try {
+            streamFile(csvFile, DEFAULT_CHUNK_SIZE, (chunk, bytesRead) -> {
+                added[0] += commitChunk(chunk);
+                return true;
+            });
+        } catch (IOException | CsvValidationException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        } finally {
+            CourseRepository.endBatch();
+        }
+        return added[0];
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sanchit.timetable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Flyweight pool for the string fields of Course. A catalog only has a few dozen distinct
+// day patterns, times, section labels and instructors, so every course built from CSV,
+// a snapshot or the UI shares one canonical String per value. Shared instances keep the
+// catalog small and make equals() on these fields an identity check in the common case.
+final class CourseDictionary {
+    private static final ConcurrentHashMap<String, String> canonical = new ConcurrentHashMap<>();
+
+    private CourseDictionary() {
+    }
+
+    // The canonical instance equal to the given string (null stays null)
+    static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = canonical.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    static int size() {
+        return canonical.size();
+    }
+}
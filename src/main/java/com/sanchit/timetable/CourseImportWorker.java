@@ -0,0 +1,56 @@
+package com.sanchit.timetable;
+
+import java.io.File;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+// Imports a course CSV on a background thread. Each parsed chunk is committed to the
+// CourseRepository on the event thread through addCourses, so listeners are notified
+// once per chunk and the UI stays responsive. Progress (0-100) follows the bytes read.
+class CourseImportWorker extends SwingWorker<Integer, Void> {
+    private final File csvFile;
+    private final int chunkSize;
+    // Only touched on the event thread
+    private int imported;
+
+    CourseImportWorker(File csvFile) {
+        this(csvFile, CourseCsvImporter.DEFAULT_CHUNK_SIZE);
+    }
+
+    CourseImportWorker(File csvFile, int chunkSize) {
+        this.csvFile = csvFile;
+        this.chunkSize = chunkSize;
+    }
+
+    protected Integer doInBackground() throws Exception {
+        long length = Math.max(1, csvFile.length());
+        CourseCsvImporter.ChunkHandler handler = (chunk, bytesRead) -> {
+            if (isCancelled()) {
+                return false;
+            }
+            commit(chunk);
+            setProgress((int) Math.min(100, bytesRead * 100 / length));
+            return !isCancelled();
+        };
+        CourseCsvImporter.streamFile(csvFile, chunkSize, handler);
+        return imported;
+    }
+
+    // Wait for the event thread to take the chunk, so at most one chunk is in flight. Cancel
+    // runs on the event thread too, so a chunk queued before it was cancelled is dropped here
+    // rather than committed after the cancellation has been reported.
+    private void commit(List<Course> chunk) throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            if (!isCancelled()) {
+                imported += CourseCsvImporter.commitChunk(chunk);
+            }
+        });
+    }
+
+    // Number of courses added so far; call on the event thread
+    int getImportedCount() {
+        return imported;
+    }
+}
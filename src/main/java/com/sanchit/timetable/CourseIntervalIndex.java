@@ -0,0 +1,240 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Interval index of course meeting times, one balanced tree (treap) per weekday.
+// Each node is augmented with the largest end minute in its subtree, so a query
+// only descends into subtrees that can still overlap: O(log n + k) per window.
+// Nodes are ordered by (start, sequence number of the course) so removal is O(log n).
+//
+// snapshot() hands out a read-only copy of the index in O(1): nodes that existed when it was
+// taken are never modified again, later changes copy the O(log n) nodes on their path instead.
+// Nodes created since the last snapshot are still private and are updated in place, so bulk
+// loads between snapshots allocate no more than a plain treap.
+class CourseIntervalIndex {
+    private static class Node {
+        final int start, end;
+        final long seq;
+        final Course course;
+        final int priority;
+        // Snapshot generation the node was created in; only nodes of the current one may change
+        final long generation;
+        int maxEnd;
+        Node left, right;
+
+        Node(int start, int end, long seq, Course course, int priority, long generation) {
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+            this.course = course;
+            this.priority = priority;
+            this.generation = generation;
+            this.maxEnd = end;
+        }
+
+        // This node with the given children: updated in place when it is still private,
+        // copied when a snapshot may be reading it
+        Node with(Node left, Node right, long generation) {
+            Node node = this.generation == generation ? this
+                    : new Node(start, end, seq, course, priority, generation);
+            node.left = left;
+            node.right = right;
+            update(node);
+            return node;
+        }
+    }
+
+    // What was indexed for a course, so it can be removed after its timing changed
+    private static class Entry {
+        final long seq;
+        final int[] intervals;
+
+        Entry(long seq, int[] intervals) {
+            this.seq = seq;
+            this.intervals = intervals;
+        }
+    }
+
+    private final Node[] roots;
+    // Null in a read-only snapshot
+    private final Map<Course, Entry> entries;
+    private final Random random = new Random(42);
+    private long nextSeq;
+    private long generation;
+    private int size;
+
+    CourseIntervalIndex() {
+        roots = new Node[WeekOccupancy.DAYS];
+        entries = new IdentityHashMap<>();
+    }
+
+    private CourseIntervalIndex(Node[] roots, int size) {
+        this.roots = roots;
+        this.entries = null;
+        this.size = size;
+    }
+
+    // Read-only view of the index as it is now, unaffected by later changes
+    CourseIntervalIndex snapshot() {
+        generation++;
+        return new CourseIntervalIndex(roots.clone(), size);
+    }
+
+    void add(Course course) {
+        checkWritable();
+        if (entries.containsKey(course)) {
+            return;
+        }
+        int[] intervals = course.occupancy.intervals();
+        Entry entry = new Entry(nextSeq++, intervals);
+        entries.put(course, entry);
+        size++;
+        for (int i = 0; i < intervals.length; i += 3) {
+            int day = intervals[i];
+            roots[day] = insert(roots[day], new Node(intervals[i + 1], intervals[i + 2], entry.seq, course,
+                    random.nextInt(), generation), generation);
+        }
+    }
+
+    void remove(Course course) {
+        checkWritable();
+        Entry entry = entries.remove(course);
+        if (entry == null) {
+            return;
+        }
+        size--;
+        for (int i = 0; i < entry.intervals.length; i += 3) {
+            int day = entry.intervals[i];
+            roots[day] = delete(roots[day], entry.intervals[i + 1], entry.seq, generation);
+        }
+    }
+
+    void addAll(List<Course> courses) {
+        for (Course course : courses) {
+            add(course);
+        }
+    }
+
+    boolean contains(Course course) {
+        checkWritable();
+        return entries.containsKey(course);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void checkWritable() {
+        if (entries == null) {
+            throw new UnsupportedOperationException("Interval index snapshots are read-only");
+        }
+    }
+
+    // All indexed courses whose lectures or labs overlap any meeting of the candidate.
+    // The candidate itself is never part of the result.
+    List<Course> findOverlapping(Course candidate) {
+        int[] intervals = candidate.occupancy.intervals();
+        if (intervals.length == 0) {
+            return Collections.emptyList();
+        }
+        Map<Course, Boolean> seen = new IdentityHashMap<>();
+        List<Course> result = new ArrayList<>();
+        for (int i = 0; i < intervals.length; i += 3) {
+            collect(roots[intervals[i]], intervals[i + 1], intervals[i + 2], candidate, seen, result);
+        }
+        return result;
+    }
+
+    // All indexed courses meeting on the given day between start and end (minutes, end exclusive)
+    List<Course> findOverlapping(int day, int start, int end) {
+        List<Course> result = new ArrayList<>();
+        collect(roots[day], start, end, null, new IdentityHashMap<>(), result);
+        return result;
+    }
+
+    private static void collect(Node node, int start, int end, Course exclude,
+            Map<Course, Boolean> seen, List<Course> result) {
+        while (node != null && node.maxEnd > start) {
+            collect(node.left, start, end, exclude, seen, result);
+            if (node.start >= end) {
+                // Everything to the right starts even later
+                return;
+            }
+            if (node.end > start && node.course != exclude && seen.put(node.course, Boolean.TRUE) == null) {
+                result.add(node.course);
+            }
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node root, Node node, long generation) {
+        if (root == null) {
+            return node;
+        }
+        if (compare(node.start, node.seq, root) < 0) {
+            Node left = insert(root.left, node, generation);
+            if (left.priority > root.priority) {
+                // Rotate right
+                return left.with(left.left, root.with(left.right, root.right, generation), generation);
+            }
+            return root.with(left, root.right, generation);
+        }
+        Node right = insert(root.right, node, generation);
+        if (right.priority > root.priority) {
+            // Rotate left
+            return right.with(root.with(root.left, right.left, generation), right.right, generation);
+        }
+        return root.with(root.left, right, generation);
+    }
+
+    private static Node delete(Node root, int start, long seq, long generation) {
+        if (root == null) {
+            return null;
+        }
+        int cmp = compare(start, seq, root);
+        if (cmp < 0) {
+            return root.with(delete(root.left, start, seq, generation), root.right, generation);
+        }
+        if (cmp > 0) {
+            return root.with(root.left, delete(root.right, start, seq, generation), generation);
+        }
+        return merge(root.left, root.right, generation);
+    }
+
+    // Join two treaps where every key in left is smaller than every key in right
+    private static Node merge(Node left, Node right, long generation) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.with(left.left, merge(left.right, right, generation), generation);
+        }
+        return right.with(merge(left, right.left, generation), right.right, generation);
+    }
+
+    private static int compare(int start, long seq, Node node) {
+        if (start != node.start) {
+            return Integer.compare(start, node.start);
+        }
+        return Long.compare(seq, node.seq);
+    }
+
+    private static void update(Node node) {
+        int max = node.end;
+        if (node.left != null) {
+            max = Math.max(max, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            max = Math.max(max, node.right.maxEnd);
+        }
+        node.maxEnd = max;
+    }
+}
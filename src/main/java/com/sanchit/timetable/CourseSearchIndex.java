@@ -0,0 +1,484 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Typeahead index over course code, name and instructor.
+//
+// Text is split into lower case words (the course code is also indexed with its separators
+// removed, so "csf21" finds "CS F213"). Words go into a prefix trie whose nodes know how many
+// postings lie below them, and every word of three or more characters is also posted under
+// its trigrams so a query can match inside a word ("213"). A query word matches a course if
+// it starts one of its words or occurs in one of its fields; all query words must match.
+//
+// A course matching a query word of three or more characters is in the postings of all the
+// word's trigrams, so candidates outside any of them are skipped without being scored.
+// Candidates are the prefix matches of the query word with the fewest of them, breadth first
+// so whole words and short completions come first, then the rest of the trigram postings;
+// ranking stops once CANDIDATE_LIMIT courses have matched every query word. The index
+// follows the repository through its listener.
+//
+// Lecture sections are posted under their trigrams only, for containing(); search ignores them.
+class CourseSearchIndex implements CourseRepository.CourseRepositoryListener {
+    static final int DEFAULT_LIMIT = 20;
+    static final int CANDIDATE_LIMIT = 256;
+
+    private static CourseSearchIndex shared;
+
+    private final Map<Course, Integer> ids = new IdentityHashMap<>();
+    private final List<Course> docs = new ArrayList<>();
+    // Words each course was indexed under, so it can be removed after its fields changed
+    private final List<String[]> docWords = new ArrayList<>();
+    private final ArrayDeque<Integer> freeIds = new ArrayDeque<>();
+    private final TrieNode root = new TrieNode();
+    private final Map<Long, CompressedBitSet> trigrams = new HashMap<>();
+
+    private static final class TrieNode {
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        char[] keys = NO_KEYS;
+        TrieNode[] children = NO_CHILDREN;
+        int childCount;
+        // Courses indexed under exactly the word ending here, or null
+        CompressedBitSet postings;
+        // Postings in this subtree
+        int count;
+
+        TrieNode child(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        TrieNode childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            if (childCount == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(2, childCount * 2));
+                children = Arrays.copyOf(children, keys.length);
+            }
+            System.arraycopy(keys, i, keys, i + 1, childCount - i);
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+            TrieNode node = new TrieNode();
+            keys[i] = c;
+            children[i] = node;
+            childCount++;
+            return node;
+        }
+    }
+
+    // Index over the current repository contents, kept up to date from now on
+    static synchronized CourseSearchIndex shared() {
+        if (shared == null) {
+            shared = new CourseSearchIndex();
+            CourseRepository.addListenerAndReplay(shared);
+        }
+        return shared;
+    }
+
+    public void coursesUpdated() {
+    }
+
+    public synchronized void coursesAdded(List<Course> courses) {
+        for (Course course : courses) {
+            if (!ids.containsKey(course)) {
+                add(course);
+            }
+        }
+    }
+
+    public synchronized void coursesRemoved(List<Course> courses) {
+        for (Course course : courses) {
+            Integer id = ids.remove(course);
+            if (id != null) {
+                unindex(id);
+                docs.set(id, null);
+                freeIds.push(id);
+            }
+        }
+    }
+
+    public synchronized void coursesChanged(List<Course> courses) {
+        for (Course course : courses) {
+            Integer id = ids.get(course);
+            if (id != null) {
+                unindex(id);
+                index(id, course);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+
+    List<Course> search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    // Courses that may contain the text in their code, name, instructor or lecture section,
+    // or null when the text has no word of three or more characters to look up. Each such word
+    // lies inside a word of the field containing the text, so every course containing it is
+    // in the postings of all its trigrams; callers still check the text against the fields.
+    synchronized List<Course> containing(String text) {
+        List<CompressedBitSet> lists = new ArrayList<>();
+        for (String word : words(text)) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                CompressedBitSet postings = trigrams.get(trigram(word, i));
+                if (postings == null) {
+                    return Collections.emptyList();
+                }
+                lists.add(postings);
+            }
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+        lists.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        List<Course> courses = new ArrayList<>();
+        CompressedBitSet rarest = lists.get(0);
+        candidates:
+        for (int id = rarest.nextSetBit(0); id >= 0; id = rarest.nextSetBit(id + 1)) {
+            for (int k = 1; k < lists.size(); k++) {
+                if (!lists.get(k).get(id)) {
+                    continue candidates;
+                }
+            }
+            courses.add(docs.get(id));
+        }
+        return courses;
+    }
+
+    // Best matching courses first: code matches before name matches before instructor
+    // matches, whole words before prefixes before matches inside a word
+    synchronized List<Course> search(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Trigram postings every match must be in, smallest first
+        List<CompressedBitSet> required = new ArrayList<>();
+        String driver = null;
+        int fewest = Integer.MAX_VALUE;
+        for (String word : words) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                CompressedBitSet postings = trigrams.get(trigram(word, i));
+                if (postings == null) {
+                    return Collections.emptyList();
+                }
+                required.add(postings);
+            }
+            TrieNode node = find(word);
+            int count = node != null ? node.count : 0;
+            if (count == 0 && word.length() < 3) {
+                return Collections.emptyList();
+            }
+            if (count < fewest) {
+                fewest = count;
+                driver = word;
+            }
+        }
+        required.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+
+        Set<Integer> seen = new HashSet<>();
+        List<int[]> scored = new ArrayList<>();
+        if (collectPrefix(find(driver), words, required, seen, scored) && !required.isEmpty()) {
+            collectContaining(words, required, seen, scored);
+        }
+
+        scored.sort((a, b) -> {
+            if (a[1] != b[1]) {
+                return Integer.compare(b[1], a[1]);
+            }
+            Course x = docs.get(a[0]), y = docs.get(b[0]);
+            if (x.courseCode.length() != y.courseCode.length()) {
+                return Integer.compare(x.courseCode.length(), y.courseCode.length());
+            }
+            int byCode = x.courseCode.compareTo(y.courseCode);
+            return byCode != 0 ? byCode : x.lectureSection.compareTo(y.lectureSection);
+        });
+        List<Course> result = new ArrayList<>(Math.min(limit, scored.size()));
+        for (int i = 0; i < scored.size() && i < limit; i++) {
+            result.add(docs.get(scored.get(i)[0]));
+        }
+        return result;
+    }
+
+    // Breadth first, so courses with short completions of the prefix are seen first;
+    // returns false once enough courses matched
+    private boolean collectPrefix(TrieNode start, List<String> words, List<CompressedBitSet> required,
+            Set<Integer> seen, List<int[]> scored) {
+        if (start == null || start.count == 0) {
+            return true;
+        }
+        ArrayDeque<TrieNode> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            TrieNode node = queue.poll();
+            if (node.postings != null) {
+                for (int id = node.postings.nextSetBit(0); id >= 0; id = node.postings.nextSetBit(id + 1)) {
+                    if (!consider(id, words, required, seen, scored)) {
+                        return false;
+                    }
+                }
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                if (node.children[i].count > 0) {
+                    queue.add(node.children[i]);
+                }
+            }
+        }
+        return true;
+    }
+
+    // Walk the smallest of the required trigram postings, for matches inside words
+    private void collectContaining(List<String> words, List<CompressedBitSet> required, Set<Integer> seen,
+            List<int[]> scored) {
+        CompressedBitSet rarest = required.get(0);
+        for (int id = rarest.nextSetBit(0); id >= 0; id = rarest.nextSetBit(id + 1)) {
+            if (!consider(id, words, required, seen, scored)) {
+                return;
+            }
+        }
+    }
+
+    // Score a candidate once; returns false when enough courses have matched. Candidates
+    // that fail a query word do not count toward the limit.
+    private boolean consider(int id, List<String> words, List<CompressedBitSet> required, Set<Integer> seen,
+            List<int[]> scored) {
+        if (!seen.add(id)) {
+            return true;
+        }
+        for (CompressedBitSet postings : required) {
+            if (!postings.get(id)) {
+                return true;
+            }
+        }
+        Course course = docs.get(id);
+        int total = 0;
+        for (String word : words) {
+            int score = score(course, word);
+            if (score == 0) {
+                return true;
+            }
+            total += score;
+        }
+        scored.add(new int[] { id, total });
+        return scored.size() < CANDIDATE_LIMIT;
+    }
+
+    private static int score(Course course, String word) {
+        int best = 0;
+        best = Math.max(best, wordMatch(course.courseCode, word, 30, 20));
+        best = Math.max(best, compactCodeMatch(course.courseCode, word, 30, 20));
+        best = Math.max(best, wordMatch(course.courseName, word, 15, 10));
+        best = Math.max(best, wordMatch(course.instructorName, word, 8, 6));
+        if (best == 0 && (containsIgnoreCase(course.courseCode, word)
+                || containsIgnoreCase(course.courseName, word)
+                || containsIgnoreCase(course.instructorName, word))) {
+            best = 2;
+        }
+        return best;
+    }
+
+    // Score for the word being a whole word of the text, or the start of one
+    private static int wordMatch(String text, String word, int whole, int prefix) {
+        if (text == null) {
+            return 0;
+        }
+        int best = 0;
+        for (int i = 0; i + word.length() <= text.length(); i++) {
+            if ((i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+                    && text.regionMatches(true, i, word, 0, word.length())) {
+                int end = i + word.length();
+                if (end == text.length() || !Character.isLetterOrDigit(text.charAt(end))) {
+                    return whole;
+                }
+                best = prefix;
+            }
+        }
+        return best;
+    }
+
+    // Match against the course code with its separators removed ("csf213" for "CS F213")
+    private static int compactCodeMatch(String code, String word, int whole, int prefix) {
+        if (code == null) {
+            return 0;
+        }
+        int matched = 0;
+        for (int i = 0; i < code.length() && matched < word.length(); i++) {
+            char c = code.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            if (Character.toLowerCase(c) != word.charAt(matched)) {
+                return 0;
+            }
+            matched++;
+        }
+        if (matched < word.length()) {
+            return 0;
+        }
+        return compactLength(code) == word.length() ? whole : prefix;
+    }
+
+    private static int compactLength(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    private static boolean containsIgnoreCase(String text, String part) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i + part.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(Course course) {
+        Integer id = freeIds.poll();
+        if (id == null) {
+            id = docs.size();
+            docs.add(course);
+            docWords.add(null);
+        } else {
+            docs.set(id, course);
+        }
+        ids.put(course, id);
+        index(id, course);
+    }
+
+    private void index(int id, Course course) {
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(words(course.courseCode));
+        String compactCode = String.join("", words);
+        if (!compactCode.isEmpty()) {
+            words.add(compactCode);
+        }
+        words.addAll(words(course.courseName));
+        words.addAll(words(course.instructorName));
+        Set<String> sectionWords = new HashSet<>(words(course.lectureSection));
+        sectionWords.removeAll(words);
+        words.addAll(sectionWords);
+
+        String[] indexed = new String[words.size()];
+        int k = 0;
+        for (String word : words) {
+            // Course fields repeat a lot, share one copy of each word
+            word = CourseDictionary.intern(word);
+            indexed[k++] = word;
+            if (!sectionWords.contains(word)) {
+                insert(word, id);
+            }
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                trigrams.computeIfAbsent(trigram(word, i), t -> new CompressedBitSet()).set(id);
+            }
+        }
+        docWords.set(id, indexed);
+    }
+
+    private void unindex(int id) {
+        for (String word : docWords.get(id)) {
+            delete(word, id);
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                long key = trigram(word, i);
+                CompressedBitSet postings = trigrams.get(key);
+                if (postings != null) {
+                    postings.clear(id);
+                    if (postings.cardinality() == 0) {
+                        trigrams.remove(key);
+                    }
+                }
+            }
+        }
+        docWords.set(id, null);
+    }
+
+    private void insert(String word, int id) {
+        TrieNode node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childOrCreate(word.charAt(i));
+        }
+        if (node.postings == null) {
+            node.postings = new CompressedBitSet();
+        }
+        if (node.postings.get(id)) {
+            return;
+        }
+        node.postings.set(id);
+        adjustCounts(word, 1);
+    }
+
+    private void delete(String word, int id) {
+        TrieNode node = find(word);
+        if (node == null || node.postings == null || !node.postings.get(id)) {
+            return;
+        }
+        node.postings.clear(id);
+        adjustCounts(word, -1);
+    }
+
+    private void adjustCounts(String word, int delta) {
+        TrieNode node = root;
+        node.count += delta;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.child(word.charAt(i));
+            node.count += delta;
+        }
+    }
+
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static long trigram(String word, int i) {
+        return (long) word.charAt(i) << 32 | (long) word.charAt(i + 1) << 16 | word.charAt(i + 2);
+    }
+
+    // Lower case runs of letters and digits
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            words.add(text.substring(start, i).toLowerCase());
+        }
+        return words;
+    }
+}
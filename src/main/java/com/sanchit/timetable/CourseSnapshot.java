@@ -0,0 +1,287 @@
+package com.sanchit.timetable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Compact binary snapshot of the CourseRepository, so the catalog does not have to be
+// re-imported from CSV on every launch.
+//
+// Layout (big-endian):
+//   int magic "TTBS", int version,
+//   long source CSV length, long source CSV last-modified, string source CSV path,
+//   int string count, strings (int byte length + UTF-8 bytes),
+//   int course count, per course 9 int string refs + byte hasLab + int lectureCount
+//   + int lecture hall capacity + int lab capacity (seats in the SeatInventory, version 2 on),
+//   long CRC32 of everything before it.
+// Snapshots are read through a read-only memory mapping and rejected when the checksum,
+// magic or version does not match. Version 1 snapshots load with unlimited seats.
+class CourseSnapshot {
+    static final int MAGIC = 0x54544253; // "TTBS"
+    static final int VERSION = 2;
+
+    // Where the snapshot lives and which CSV it was built from, overridable on the command line
+    static final File DEFAULT_FILE = new File(System.getProperty("timetable.snapshot", "courses.snapshot"));
+    static final String CATALOG_PROPERTY = "timetable.catalog";
+
+    final List<Course> courses;
+    // Seats of each course, SeatInventory.UNLIMITED where none were set
+    final int[] lectureCapacities, labCapacities;
+    final String sourcePath;
+    final long sourceLength, sourceModified;
+
+    private CourseSnapshot(List<Course> courses, int[] lectureCapacities, int[] labCapacities, String sourcePath,
+            long sourceLength, long sourceModified) {
+        this.courses = courses;
+        this.lectureCapacities = lectureCapacities;
+        this.labCapacities = labCapacities;
+        this.sourcePath = sourcePath;
+        this.sourceLength = sourceLength;
+        this.sourceModified = sourceModified;
+    }
+
+    // True if the snapshot was built from a different version of the CSV file
+    boolean isStaleFor(File csvFile) {
+        return !csvFile.getAbsolutePath().equals(sourcePath)
+                || csvFile.length() != sourceLength
+                || csvFile.lastModified() != sourceModified;
+    }
+
+    // Write the courses and their seats to the file, atomically replacing any previous
+    // snapshot. source may be null when there is no catalog CSV to check the snapshot against.
+    static void write(File file, List<Course> courses, File source) throws IOException {
+        SeatInventory seats = EnrollmentStore.shared().seats();
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] refs = new int[courses.size() * 9];
+        int r = 0;
+        for (Course c : courses) {
+            for (String value : fields(c)) {
+                Integer id = ids.get(value);
+                if (id == null) {
+                    id = strings.size();
+                    ids.put(value, id);
+                    strings.add(value);
+                }
+                refs[r++] = id;
+            }
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile("courses", ".snapshot.tmp", parent);
+        try {
+            CRC32 crc = new CRC32();
+            try (BufferedOutputStream fileOut = new BufferedOutputStream(new FileOutputStream(temp), 1 << 16)) {
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(fileOut, crc));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(source != null ? source.length() : -1);
+                out.writeLong(source != null ? source.lastModified() : -1);
+                writeString(out, source != null ? source.getAbsolutePath() : "");
+
+                out.writeInt(strings.size());
+                for (String s : strings) {
+                    writeString(out, s);
+                }
+
+                out.writeInt(courses.size());
+                r = 0;
+                for (Course c : courses) {
+                    for (int i = 0; i < 9; i++) {
+                        out.writeInt(refs[r++]);
+                    }
+                    out.writeByte(c.hasLab ? 1 : 0);
+                    out.writeInt(c.lectureCount);
+                    out.writeInt(seats.lectureCapacity(c));
+                    out.writeInt(seats.labCapacity(c));
+                }
+                out.flush();
+
+                // The checksum goes straight to the file, it is not part of the checked bytes
+                new DataOutputStream(fileOut).writeLong(crc.getValue());
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    // Load a snapshot, throwing IOException if it is missing, truncated or corrupt
+    static CourseSnapshot read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 + 8 || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot has an invalid size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - 8));
+            if (crc.getValue() != buffer.getLong((int) size - 8)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            buffer.limit((int) size - 8);
+
+            try {
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException("Not a course snapshot");
+                }
+                int version = buffer.getInt();
+                if (version != VERSION && version != 1) {
+                    throw new IOException("Unsupported snapshot version " + version);
+                }
+                boolean hasSeats = version >= 2;
+                long sourceLength = buffer.getLong();
+                long sourceModified = buffer.getLong();
+                String sourcePath = readString(buffer);
+
+                String[] strings = new String[checkedCount(buffer, 4)];
+                for (int i = 0; i < strings.length; i++) {
+                    strings[i] = readString(buffer);
+                }
+
+                int count = checkedCount(buffer, 9 * 4 + 1 + 4 + (hasSeats ? 8 : 0));
+                List<Course> courses = new ArrayList<>(count);
+                int[] lectureCapacities = new int[count], labCapacities = new int[count];
+                for (int i = 0; i < count; i++) {
+                    String code = strings[buffer.getInt()];
+                    String name = strings[buffer.getInt()];
+                    String lectureSection = strings[buffer.getInt()];
+                    String labSection = strings[buffer.getInt()];
+                    String lectureDays = strings[buffer.getInt()];
+                    String lectureTime = strings[buffer.getInt()];
+                    String labDays = strings[buffer.getInt()];
+                    String labTime = strings[buffer.getInt()];
+                    String instructor = strings[buffer.getInt()];
+                    boolean hasLab = buffer.get() != 0;
+                    int lectureCount = buffer.getInt();
+                    lectureCapacities[i] = hasSeats ? buffer.getInt() : SeatInventory.UNLIMITED;
+                    labCapacities[i] = hasSeats ? buffer.getInt() : SeatInventory.UNLIMITED;
+                    courses.add(new Course(code, name, lectureSection, labSection, hasLab, lectureCount,
+                            lectureDays, lectureTime, labDays, labTime, instructor));
+                }
+                if (buffer.hasRemaining()) {
+                    throw new IOException("Trailing data in snapshot");
+                }
+                return new CourseSnapshot(courses, lectureCapacities, labCapacities, sourcePath, sourceLength,
+                        sourceModified);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Snapshot is truncated or corrupt", e);
+            }
+        }
+    }
+
+    // The catalog CSV named on the command line, or null. Snapshots are stamped with it even
+    // when they hold later edits, so they stay valid until the CSV itself changes.
+    static File configuredCatalog() {
+        String catalogPath = System.getProperty(CATALOG_PROPERTY);
+        return catalogPath != null ? new File(catalogPath) : null;
+    }
+
+    // Fill the repository at startup: use the snapshot when it is valid and up to date,
+    // otherwise fall back to importing the catalog CSV (if one is configured) and write a
+    // fresh snapshot for next time. Seats come from the snapshot either way, since the CSV
+    // has none. Returns the number of courses loaded.
+    static int restore(File snapshotFile) {
+        File catalog = configuredCatalog();
+
+        if (snapshotFile.isFile()) {
+            try {
+                CourseSnapshot snapshot = read(snapshotFile);
+                snapshot.restoreSeats();
+                if (catalog == null || !catalog.isFile() || !snapshot.isStaleFor(catalog)) {
+                    CourseRepository.addCourses(snapshot.courses);
+                    return snapshot.courses.size();
+                }
+                System.err.println("Course snapshot is older than " + catalog + ", re-importing");
+            } catch (IOException e) {
+                System.err.println("Ignoring course snapshot " + snapshotFile + ": " + e.getMessage());
+            }
+        }
+
+        if (catalog == null || !catalog.isFile()) {
+            return 0;
+        }
+        try {
+            int count = CourseCsvImporter.importFile(catalog);
+            write(snapshotFile, CourseRepository.courses(), catalog);
+            return count;
+        } catch (Exception e) {
+            System.err.println("Could not import course catalog " + catalog + ": " + e.getMessage());
+            return CourseRepository.size();
+        }
+    }
+
+    // Seats are kept by course code and section, so they apply to whichever courses the
+    // repository ends up with
+    private void restoreSeats() {
+        SeatInventory seats = EnrollmentStore.shared().seats();
+        for (int i = 0; i < courses.size(); i++) {
+            if (lectureCapacities[i] != SeatInventory.UNLIMITED || labCapacities[i] != SeatInventory.UNLIMITED) {
+                seats.setCapacity(courses.get(i), lectureCapacities[i], labCapacities[i]);
+            }
+        }
+    }
+
+    // Save the repository at shutdown if it or the seats changed after this call
+    static void saveOnExit(File snapshotFile) {
+        // Set by the thread making the change, read by the shutdown hook
+        AtomicBoolean changed = new AtomicBoolean();
+        CourseRepository.addListener(() -> changed.set(true));
+        SeatInventory seats = EnrollmentStore.shared().seats();
+        long seatChanges = seats.capacityChanges();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (changed.get() || seats.capacityChanges() != seatChanges) {
+                try {
+                    write(snapshotFile, CourseRepository.courses(), configuredCatalog());
+                } catch (IOException e) {
+                    System.err.println("Could not save course snapshot: " + e.getMessage());
+                }
+            }
+        }, "course-snapshot"));
+    }
+
+    private static String[] fields(Course c) {
+        return new String[] { c.courseCode, c.courseName, c.lectureSection, c.labSection,
+                c.lectureDays, c.lectureTime, c.labDays, c.labTime, c.instructorName };
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer buffer) throws IOException {
+        int length = checkedCount(buffer, 1);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Read a count and make sure that many records of the given size can still follow
+    private static int checkedCount(MappedByteBuffer buffer, int recordSize) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * recordSize > buffer.remaining()) {
+            throw new IOException("Snapshot is truncated or corrupt");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sanchit.timetable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Immutable set of weekdays (bit 0 = Monday ... bit 4 = Friday) parsed from a pattern such as
+// "MWF", "TTh", "MoWeFr" or "Wednesday". There are only 32 possible patterns, so every one is
+// created up front and each distinct string is parsed once and mapped to its shared instance.
+final class DayPattern {
+    static final int DAYS = 5;
+    static final String[] SHORT_NAMES = { "Mon", "Tue", "Wed", "Thu", "Fri" };
+
+    private static final DayPattern[] BY_MASK = new DayPattern[1 << DAYS];
+    private static final int MAX_CACHED = 10_000;
+    private static final Map<String, DayPattern> CACHE = new ConcurrentHashMap<>();
+
+    static {
+        for (int mask = 0; mask < BY_MASK.length; mask++) {
+            BY_MASK[mask] = new DayPattern(mask);
+        }
+    }
+
+    static final DayPattern NONE = BY_MASK[0];
+
+    private final int mask;
+    private final int[] days;
+    private final String display;
+
+    private DayPattern(int mask) {
+        this.mask = mask;
+        this.days = new int[Integer.bitCount(mask)];
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        for (int day = 0; day < DAYS; day++) {
+            if ((mask & (1 << day)) != 0) {
+                days[count++] = day;
+                sb.append(sb.length() > 0 ? "/" : "").append(SHORT_NAMES[day]);
+            }
+        }
+        this.display = sb.toString();
+    }
+
+    // The pattern for a string; null and unknown days give NONE
+    static DayPattern of(String pattern) {
+        if (pattern == null) {
+            return NONE;
+        }
+        DayPattern cached = CACHE.get(pattern);
+        if (cached == null) {
+            cached = BY_MASK[parse(pattern)];
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(pattern, cached);
+            }
+        }
+        return cached;
+    }
+
+    static DayPattern ofMask(int mask) {
+        return BY_MASK[mask & (BY_MASK.length - 1)];
+    }
+
+    int mask() {
+        return mask;
+    }
+
+    boolean contains(int day) {
+        return (mask & (1 << day)) != 0;
+    }
+
+    // Day indexes in week order
+    int[] days() {
+        return days.clone();
+    }
+
+    int dayCount() {
+        return days.length;
+    }
+
+    int day(int i) {
+        return days[i];
+    }
+
+    // "Mon/Wed/Fri" style text for the UI
+    String format() {
+        return display;
+    }
+
+    public String toString() {
+        return display;
+    }
+
+    // Each day starts with an upper case letter; "Th" and "R" are Thursday, a lone "T" is Tuesday
+    private static int parse(String pattern) {
+        int mask = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (!Character.isUpperCase(c)) {
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            while (end < pattern.length() && Character.isLowerCase(pattern.charAt(end))) {
+                end++;
+            }
+            switch (c) {
+                case 'M' -> mask |= 1;
+                case 'T' -> mask |= (end > i + 1 && pattern.charAt(i + 1) == 'h') ? 1 << 3 : 1 << 1;
+                case 'W' -> mask |= 1 << 2;
+                case 'R' -> mask |= 1 << 3;
+                case 'F' -> mask |= 1 << 4;
+                default -> {
+                    // Weekend or unknown day, not part of the timetable
+                }
+            }
+            i = end;
+        }
+        return mask;
+    }
+}
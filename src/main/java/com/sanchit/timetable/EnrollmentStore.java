@@ -0,0 +1,256 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Course enrollments of every student, keyed by student ID.
+//
+// Each student's timetable is an immutable Schedule: the enrolled courses plus the union of
+// their occupancy bitmaps, so the clash check for a new course is a few ANDs however many
+// courses the student already has. Enrolling and dropping build a new Schedule and swap it in
+// with a compare-and-set on that student's reference, retrying if the same student changed
+// concurrently. Different students never contend, and nothing takes a lock. Seats are
+// reserved in the SeatInventory; a student who finds the section full joins its waitlist and
+// is enrolled when a seat comes free, if the course still fits their timetable then.
+class EnrollmentStore {
+    private static final EnrollmentStore shared = new EnrollmentStore();
+
+    private final ConcurrentHashMap<String, AtomicReference<Schedule>> students = new ConcurrentHashMap<>();
+    private final SeatInventory seats = new SeatInventory(this::enrollFromWaitlist);
+
+    enum Status {
+        ENROLLED, ALREADY_ENROLLED, CONFLICT, UNREADABLE_TIMING, WAITLISTED, ALREADY_WAITLISTED, DROPPED,
+        NOT_ENROLLED
+    }
+
+    // A student's courses in enrollment order and the time they occupy
+    static final class Schedule {
+        static final Schedule EMPTY = new Schedule(new Course[0], new WeekOccupancy[0], WeekOccupancy.EMPTY);
+
+        private final Course[] courses;
+        // Occupancy of each course when it was enrolled; a course whose timing was changed
+        // since then no longer matches, and the union is not trusted until rebuilt
+        private final WeekOccupancy[] parts;
+        final WeekOccupancy occupancy;
+
+        private Schedule(Course[] courses, WeekOccupancy[] parts, WeekOccupancy occupancy) {
+            this.courses = courses;
+            this.parts = parts;
+            this.occupancy = occupancy;
+        }
+
+        List<Course> courses() {
+            return Collections.unmodifiableList(Arrays.asList(courses));
+        }
+
+        int size() {
+            return courses.length;
+        }
+
+        // The enrolled section of the course code, or null
+        Course find(String courseCode) {
+            for (Course course : courses) {
+                if (course.courseCode.equals(courseCode)) {
+                    return course;
+                }
+            }
+            return null;
+        }
+
+        // The enrolled course that clashes with the candidate, or null
+        Course conflictWith(Course candidate) {
+            if (!isStale() && !occupancy.overlaps(candidate.occupancy)) {
+                return null;
+            }
+            for (Course course : courses) {
+                if (course.hasTimeConflict(candidate)) {
+                    return course;
+                }
+            }
+            return null;
+        }
+
+        private boolean isStale() {
+            for (int i = 0; i < courses.length; i++) {
+                if (courses[i].occupancy != parts[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Schedule plus(Course course) {
+            Course[] more = Arrays.copyOf(courses, courses.length + 1);
+            more[courses.length] = course;
+            return build(more);
+        }
+
+        private Schedule minus(Course course) {
+            Course[] fewer = new Course[courses.length - 1];
+            int n = 0;
+            for (Course c : courses) {
+                if (c != course) {
+                    fewer[n++] = c;
+                }
+            }
+            return build(fewer);
+        }
+
+        private static Schedule build(Course[] courses) {
+            WeekOccupancy[] parts = new WeekOccupancy[courses.length];
+            WeekOccupancy occupied = WeekOccupancy.EMPTY;
+            for (int i = 0; i < courses.length; i++) {
+                parts[i] = courses[i].occupancy;
+                occupied = occupied.union(parts[i]);
+            }
+            return new Schedule(courses, parts, occupied);
+        }
+    }
+
+    static final class Result {
+        final Status status;
+        // The enrolled course that is already taken or clashes, if any
+        final Course other;
+        // The student's schedule after the operation
+        final Schedule schedule;
+
+        Result(Status status, Course other, Schedule schedule) {
+            this.status = status;
+            this.other = other;
+            this.schedule = schedule;
+        }
+
+        boolean isSuccess() {
+            return status == Status.ENROLLED || status == Status.DROPPED;
+        }
+
+        boolean isWaitlisted() {
+            return status == Status.WAITLISTED || status == Status.ALREADY_WAITLISTED;
+        }
+    }
+
+    static EnrollmentStore shared() {
+        return shared;
+    }
+
+    SeatInventory seats() {
+        return seats;
+    }
+
+    Schedule schedule(String studentId) {
+        AtomicReference<Schedule> ref = students.get(studentId);
+        return ref == null ? Schedule.EMPTY : ref.get();
+    }
+
+    int studentCount() {
+        return students.size();
+    }
+
+    // The current schedule of every student, each read at some point during the call
+    List<Schedule> schedules() {
+        List<Schedule> all = new ArrayList<>(students.size());
+        for (AtomicReference<Schedule> ref : students.values()) {
+            all.add(ref.get());
+        }
+        return all;
+    }
+
+    // Enroll the student in the course unless they already take a section of it, it clashes
+    // with their timetable or its timing cannot be read. A full section puts them on its
+    // waitlist instead.
+    Result enroll(String studentId, Course course) {
+        if (course.timingProblem() != null) {
+            // Its time cannot be checked for clashes, so it must not look free
+            return new Result(Status.UNREADABLE_TIMING, null, schedule(studentId));
+        }
+        AtomicReference<Schedule> ref = student(studentId);
+        boolean reserved = false;
+        while (true) {
+            Schedule current = ref.get();
+            Course taken = current.find(course.courseCode);
+            Course clash = taken == null ? current.conflictWith(course) : null;
+            if (taken != null || clash != null) {
+                if (reserved) {
+                    seats.release(course);
+                }
+                return taken != null ? new Result(Status.ALREADY_ENROLLED, taken, current)
+                        : new Result(Status.CONFLICT, clash, current);
+            }
+            if (!reserved) {
+                if (!seats.tryReserve(course)) {
+                    return waitlist(studentId, course);
+                }
+                reserved = true;
+            }
+            Schedule next = current.plus(course);
+            if (ref.compareAndSet(current, next)) {
+                return new Result(Status.ENROLLED, null, next);
+            }
+        }
+    }
+
+    private Result waitlist(String studentId, Course course) {
+        boolean joined = seats.joinWaitlist(course, studentId);
+        Schedule schedule = schedule(studentId);
+        // The seat may have come free and gone to the student right away
+        if (Arrays.asList(schedule.courses).contains(course)) {
+            return new Result(Status.ENROLLED, null, schedule);
+        }
+        return new Result(joined ? Status.WAITLISTED : Status.ALREADY_WAITLISTED, null, schedule);
+    }
+
+    // Place a waitlisted student in a seat already set aside for them; false if the course no
+    // longer fits their timetable
+    private boolean enrollFromWaitlist(String studentId, Course course) {
+        AtomicReference<Schedule> ref = student(studentId);
+        while (true) {
+            Schedule current = ref.get();
+            if (current.find(course.courseCode) != null || current.conflictWith(course) != null) {
+                return false;
+            }
+            if (ref.compareAndSet(current, current.plus(course))) {
+                return true;
+            }
+        }
+    }
+
+    // Remove the course (matched by identity) from the student's timetable, handing the seat
+    // to the waitlist, or take the student off the course's waitlist. A student whose seat
+    // is being handed over right now is dropped once the promotion has finished.
+    Result drop(String studentId, Course course) {
+        AtomicReference<Schedule> ref = students.get(studentId);
+        if (ref == null) {
+            return new Result(Status.NOT_ENROLLED, null, Schedule.EMPTY);
+        }
+        while (true) {
+            Schedule current = ref.get();
+            if (!Arrays.asList(current.courses).contains(course)) {
+                if (seats.leaveWaitlist(course, studentId)) {
+                    return new Result(Status.DROPPED, null, current);
+                }
+                if (seats.isPromoting(course, studentId)) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // The promotion may have finished between reading the schedule and checking
+                if (ref.get() != current) {
+                    continue;
+                }
+                return new Result(Status.NOT_ENROLLED, null, current);
+            }
+            Schedule next = current.minus(course);
+            if (ref.compareAndSet(current, next)) {
+                seats.release(course);
+                return new Result(Status.DROPPED, course, next);
+            }
+        }
+    }
+
+    private AtomicReference<Schedule> student(String studentId) {
+        return students.computeIfAbsent(studentId, id -> new AtomicReference<>(Schedule.EMPTY));
+    }
+}
@@ -0,0 +1,377 @@
+package com.sanchit.timetable;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Places the midsem or comprehensive exam of every course code in an exam slot.
+//
+// Two courses conflict when some student is enrolled in both; the weight of the edge is the
+// number of such students. Slots are handed out DSatur style: the next course is the one
+// whose conflicting courses already sit in the most distinct slots (ties go to the heaviest
+// conflicts, then the largest exam), and it takes the slot that (in this order) keeps the
+// exams in the slot within the seats of the exam halls, puts no student in two exams at
+// once, and gives the fewest students a second exam that day. The graph is built from
+// pairs of course ids packed into longs and sorted, so 50k students and 5k courses take a
+// fraction of a second.
+//
+// The exam window (first day and number of exam days) changes every semester, so it is not
+// built in: the admin enters it when scheduling, and the timetable.exam.midsem.start/.days
+// and timetable.exam.comprehensive.start/.days properties can preset it.
+class ExamScheduler {
+    static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yy");
+    // Typed dates: day and month may have one digit, and dates that do not exist are refused
+    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("d/M/uu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    enum Exam {
+        MIDSEM("Midsem", 6, "9:30-11 am", "2 - 3:30 pm"),
+        COMPREHENSIVE("Comprehensive", 10, "9:30 am - 12:30 pm", "2 - 5 pm");
+
+        final String label;
+        // Exam days offered when nothing is configured
+        final int defaultDays;
+        final String[] times;
+
+        Exam(String label, int defaultDays, String... times) {
+            this.label = label;
+            this.defaultDays = defaultDays;
+            this.times = times;
+        }
+
+        String property(String name) {
+            return System.getProperty("timetable.exam." + name().toLowerCase(Locale.ROOT) + "." + name);
+        }
+    }
+
+    // First exam day and number of exam days (Sundays are skipped and not counted)
+    static final class Window {
+        final LocalDate firstDay;
+        final int days;
+
+        Window(LocalDate firstDay, int days) {
+            if (days <= 0) {
+                throw new IllegalArgumentException("The number of exam days must be positive");
+            }
+            this.firstDay = firstDay;
+            this.days = days;
+        }
+
+        // A window from a start date (dd/MM/yy or yyyy-MM-dd) and a number of days as typed
+        static Window parse(String start, String days) {
+            if (start.isBlank()) {
+                throw new IllegalArgumentException("Enter the first exam day");
+            }
+            DateTimeFormatter format = start.contains("/") ? INPUT_FORMAT : DateTimeFormatter.ISO_LOCAL_DATE;
+            LocalDate firstDay;
+            try {
+                firstDay = LocalDate.parse(start.trim(), format);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Unrecognized exam start date: " + start);
+            }
+            try {
+                return new Window(firstDay, Integer.parseInt(days.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The number of exam days must be a number");
+            }
+        }
+
+        String start() {
+            return firstDay.format(DATE_FORMAT);
+        }
+    }
+
+    private static final Map<Exam, Plan> latest = new ConcurrentHashMap<>();
+
+    private final Exam exam;
+    private final Window window;
+    private final int seatsPerSlot;
+
+    // Slot of every course code and what the schedule costs the students
+    static final class Plan {
+        final Exam exam;
+        final Window window;
+        final Map<String, Integer> slots;
+        // Students sitting two exams in the same slot, counted once per pair of exams
+        final long clashes;
+        // Students with two exams on the same day, counted once per pair of exams
+        final long sameDay;
+        // Course codes whose slot has more students than exam seats
+        final List<String> overCapacity;
+        final int students;
+
+        private Plan(Exam exam, Window window, Map<String, Integer> slots, long clashes, long sameDay,
+                List<String> overCapacity, int students) {
+            this.exam = exam;
+            this.window = window;
+            this.slots = slots;
+            this.clashes = clashes;
+            this.sameDay = sameDay;
+            this.overCapacity = overCapacity;
+            this.students = students;
+        }
+
+        // Exam date of the course code, or null if it has no exam in this plan
+        String date(String courseCode) {
+            Integer slot = slots.get(courseCode);
+            return slot == null ? null : dayOf(window, slot / exam.times.length).format(DATE_FORMAT);
+        }
+
+        String time(String courseCode) {
+            Integer slot = slots.get(courseCode);
+            return slot == null ? null : exam.times[slot % exam.times.length];
+        }
+
+        String summary() {
+            return exam.label + ": " + slots.size() + " exams over " + window.days + " days from " + window.start()
+                    + " for " + students
+                    + " students, " + clashes + " clashing and " + sameDay + " same-day exam pairs"
+                    + (overCapacity.isEmpty() ? "" : ", " + overCapacity.size() + " exams over hall capacity");
+        }
+    }
+
+    ExamScheduler(Exam exam, Window window, int seatsPerSlot) {
+        this.exam = exam;
+        this.window = window;
+        this.seatsPerSlot = seatsPerSlot;
+    }
+
+    // The window of the last plan for the exam, else the one set by system properties, else
+    // null when no start date is known
+    static Window configuredWindow(Exam exam) {
+        Plan plan = latest.get(exam);
+        if (plan != null) {
+            return plan.window;
+        }
+        String start = exam.property("start");
+        if (start == null) {
+            return null;
+        }
+        String days = exam.property("days");
+        return Window.parse(start, days != null ? days : String.valueOf(exam.defaultDays));
+    }
+
+    // Schedule the exam in the window for the catalog and the shared enrollments, keeping the
+    // plan for the course status page
+    static Plan scheduleCurrent(Exam exam, Window window) {
+        List<List<Course>> enrollments = new ArrayList<>();
+        for (EnrollmentStore.Schedule schedule : EnrollmentStore.shared().schedules()) {
+            enrollments.add(schedule.courses());
+        }
+        Plan plan = new ExamScheduler(exam, window, hallSeats(RoomAllocator.DEFAULT_FILE))
+                .schedule(CourseRepository.courses(), enrollments);
+        latest.put(exam, plan);
+        return plan;
+    }
+
+    // The plan from the last scheduleCurrent, or null
+    static Plan latest(Exam exam) {
+        return latest.get(exam);
+    }
+
+    // Every room of the inventory can seat exam candidates; without one the halls are unlimited
+    static int hallSeats(File roomFile) {
+        if (!roomFile.isFile()) {
+            return UNLIMITED;
+        }
+        try {
+            long seats = 0;
+            for (RoomAllocator.Room room : RoomAllocator.readRooms(roomFile)) {
+                seats += room.capacity;
+            }
+            return (int) Math.min(seats, UNLIMITED);
+        } catch (IOException e) {
+            System.err.println("Could not read room inventory " + roomFile + ": " + e.getMessage());
+            return UNLIMITED;
+        }
+    }
+
+    Plan schedule(List<Course> catalog, List<? extends List<Course>> enrollments) {
+        // Course codes get dense ids; sections of a course share its exam
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> codes = new ArrayList<>();
+        for (Course course : catalog) {
+            id(course.courseCode, ids, codes);
+        }
+        int[] scratch = new int[16];
+        long[] pairs = new long[1024];
+        int pairCount = 0;
+        int[] size = new int[0];
+        for (List<Course> courses : enrollments) {
+            if (scratch.length < courses.size()) {
+                scratch = new int[courses.size()];
+            }
+            int n = 0;
+            for (Course course : courses) {
+                scratch[n++] = id(course.courseCode, ids, codes);
+            }
+            Arrays.sort(scratch, 0, n);
+            n = distinct(scratch, n);
+            if (size.length < codes.size()) {
+                size = Arrays.copyOf(size, Math.max(codes.size(), size.length * 2));
+            }
+            for (int i = 0; i < n; i++) {
+                size[scratch[i]]++;
+                for (int j = i + 1; j < n; j++) {
+                    if (pairCount == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    }
+                    pairs[pairCount++] = (long) scratch[i] << 32 | scratch[j];
+                }
+            }
+        }
+        int nodes = codes.size();
+        size = Arrays.copyOf(size, nodes);
+        Arrays.sort(pairs, 0, pairCount);
+
+        // Adjacency in compressed rows: neighbours of v are target[offset[v] .. offset[v + 1])
+        int[] degree = new int[nodes];
+        for (int i = 0; i < pairCount; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) {
+                degree[(int) (pairs[i] >>> 32)]++;
+                degree[(int) pairs[i]]++;
+            }
+        }
+        int[] offset = new int[nodes + 1];
+        for (int v = 0; v < nodes; v++) {
+            offset[v + 1] = offset[v] + degree[v];
+        }
+        int[] target = new int[offset[nodes]];
+        int[] weight = new int[offset[nodes]];
+        int[] fill = Arrays.copyOf(offset, nodes);
+        long[] conflictWeight = new long[nodes];
+        for (int i = 0; i < pairCount; ) {
+            long pair = pairs[i];
+            int students = 0;
+            while (i < pairCount && pairs[i] == pair) {
+                students++;
+                i++;
+            }
+            int a = (int) (pair >>> 32), b = (int) pair;
+            target[fill[a]] = b;
+            weight[fill[a]++] = students;
+            target[fill[b]] = a;
+            weight[fill[b]++] = students;
+            conflictWeight[a] += students;
+            conflictWeight[b] += students;
+        }
+
+        int perDay = exam.times.length;
+        int slotCount = window.days * perDay;
+        int[] slotOf = new int[nodes];
+        Arrays.fill(slotOf, -1);
+        // Slots used by each course's neighbours, and how many distinct ones that is
+        long[][] seen = new long[nodes][(slotCount + 63) / 64];
+        int[] saturation = new int[nodes];
+        long[] seated = new long[slotCount];
+        long[] clashIn = new long[slotCount];
+        long[] sameDayIn = new long[window.days];
+        long clashes = 0, sameDay = 0;
+        List<String> overCapacity = new ArrayList<>();
+
+        for (int placed = 0; placed < nodes; placed++) {
+            int v = -1;
+            for (int u = 0; u < nodes; u++) {
+                if (slotOf[u] < 0 && (v < 0 || saturation[u] > saturation[v]
+                        || saturation[u] == saturation[v] && (conflictWeight[u] > conflictWeight[v]
+                        || conflictWeight[u] == conflictWeight[v] && size[u] > size[v]))) {
+                    v = u;
+                }
+            }
+            for (int e = offset[v]; e < offset[v + 1]; e++) {
+                int slot = slotOf[target[e]];
+                if (slot >= 0) {
+                    clashIn[slot] += weight[e];
+                    sameDayIn[slot / perDay] += weight[e];
+                }
+            }
+            int best = 0;
+            for (int slot = 1; slot < slotCount; slot++) {
+                if (better(slot, best, size[v], seated, clashIn, sameDayIn, perDay)) {
+                    best = slot;
+                }
+            }
+            slotOf[v] = best;
+            seated[best] += size[v];
+            clashes += clashIn[best];
+            sameDay += sameDayIn[best / perDay] - clashIn[best];
+            if (seated[best] > seatsPerSlot) {
+                overCapacity.add(codes.get(v));
+            }
+            Arrays.fill(clashIn, 0);
+            Arrays.fill(sameDayIn, 0);
+            for (int e = offset[v]; e < offset[v + 1]; e++) {
+                int u = target[e];
+                long bit = 1L << best;
+                if (slotOf[u] < 0 && (seen[u][best >>> 6] & bit) == 0) {
+                    seen[u][best >>> 6] |= bit;
+                    saturation[u]++;
+                }
+            }
+        }
+
+        Map<String, Integer> slots = new HashMap<>();
+        for (int v = 0; v < nodes; v++) {
+            slots.put(codes.get(v), slotOf[v]);
+        }
+        return new Plan(exam, window, slots, clashes, sameDay, overCapacity, enrollments.size());
+    }
+
+    // Whether the slot suits an exam of the given size better than the best one so far
+    private boolean better(int slot, int best, int students, long[] seated, long[] clashIn, long[] sameDayIn,
+            int perDay) {
+        boolean fits = seated[slot] + students <= seatsPerSlot;
+        if (fits != (seated[best] + students <= seatsPerSlot)) {
+            return fits;
+        }
+        if (clashIn[slot] != clashIn[best]) {
+            return clashIn[slot] < clashIn[best];
+        }
+        return sameDayIn[slot / perDay] < sameDayIn[best / perDay];
+    }
+
+    private static int id(String code, Map<String, Integer> ids, List<String> codes) {
+        Integer id = ids.get(code);
+        if (id == null) {
+            id = codes.size();
+            ids.put(code, id);
+            codes.add(code);
+        }
+        return id;
+    }
+
+    // Squeeze duplicates out of the sorted prefix, returning its new length
+    private static int distinct(int[] sorted, int n) {
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m == 0 || sorted[i] != sorted[m - 1]) {
+                sorted[m++] = sorted[i];
+            }
+        }
+        return m;
+    }
+
+    // Exam days run from the first day, skipping Sundays
+    private static LocalDate dayOf(Window window, int day) {
+        LocalDate date = window.firstDay;
+        if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            date = date.plusDays(1);
+        }
+        for (int i = 0; i < day; i++) {
+            date = date.plusDays(date.getDayOfWeek() == DayOfWeek.SATURDAY ? 2 : 1);
+        }
+        return date;
+    }
+}
@@ -0,0 +1,185 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Proposes the lab sections of a course: a day, time and instructor for each, clear of the
+// course's lectures and of everything the instructor already teaches in the CourseRepository.
+//
+// The plan grows and shrinks one section at a time. Going from 8 to 9 sections places only
+// the ninth, against the instructor bookings kept from the first eight; dropping sections
+// gives their time back. Each new section goes to the least used candidate slot that has a
+// free instructor, and to the instructor with the fewest sections so far, so the sections
+// spread over the week and over the staff.
+class LabSectionPlanner {
+    static final int MAX_SECTIONS = 100;
+    static final String UNASSIGNED = "TBA";
+    // Lab sessions are 1:50 long; afternoons first, as labs usually are
+    private static final int[] STARTS = { 14 * 60, 16 * 60, 8 * 60, 10 * 60 };
+    private static final int LENGTH = 110;
+
+    private final WeekOccupancy lectures;
+    private final String courseCode;
+    private final List<String> instructors;
+    private final List<Slot> slots = new ArrayList<>();
+    private final List<Section> sections = new ArrayList<>();
+    // What each instructor teaches elsewhere, looked up once, and that plus their sections here
+    private final Map<String, WeekOccupancy> committed = new HashMap<>();
+    private final Map<String, WeekOccupancy> booked = new HashMap<>();
+    private final Map<String, Integer> load = new HashMap<>();
+
+    private static final class Slot {
+        final String day;
+        final String time;
+        final WeekOccupancy occupancy;
+        int used;
+
+        Slot(String day, String time) {
+            this.day = day;
+            this.time = time;
+            this.occupancy = WeekOccupancy.of(day, time, false, null, null);
+        }
+    }
+
+    static final class Section {
+        final String name;
+        final String day;
+        final String time;
+        // UNASSIGNED when every instructor is busy at every free slot
+        final String instructor;
+        private final Slot slot;
+
+        private Section(String name, Slot slot, String instructor) {
+            this.name = name;
+            this.day = slot.day;
+            this.time = slot.time;
+            this.instructor = instructor;
+            this.slot = slot;
+        }
+
+        boolean isAssigned() {
+            return !UNASSIGNED.equals(instructor);
+        }
+    }
+
+    // Plans labs for the course, taught by the given instructors in order of preference
+    LabSectionPlanner(Course course, List<String> instructors) {
+        this.lectures = WeekOccupancy.of(course.lectureDays, course.lectureTime, false, null, null);
+        this.courseCode = course.courseCode;
+        this.instructors = new ArrayList<>(new LinkedHashSet<>(instructors));
+        for (int start : STARTS) {
+            String time = TimeSlot.of(start, start + LENGTH).toString();
+            for (String day : DayPattern.SHORT_NAMES) {
+                slots.add(new Slot(day, time));
+            }
+        }
+    }
+
+    // The lecture instructor first, then whoever teaches other sections of the course
+    static List<String> instructorsFor(Course course) {
+        List<String> instructors = new ArrayList<>();
+        instructors.add(course.instructorName);
+        for (Course section : CourseRepository.findByCode(course.courseCode)) {
+            instructors.add(section.instructorName);
+        }
+        return instructors;
+    }
+
+    // The first count sections, planning new ones or giving up the last ones as needed
+    List<Section> plan(int count) {
+        count = Math.max(0, Math.min(count, MAX_SECTIONS));
+        while (sections.size() > count) {
+            remove(sections.remove(sections.size() - 1));
+        }
+        while (sections.size() < count) {
+            sections.add(next("P" + (sections.size() + 1)));
+        }
+        return Collections.unmodifiableList(new ArrayList<>(sections));
+    }
+
+    private Section next(String name) {
+        Slot best = null;
+        String teacher = null;
+        Slot fallback = null;
+        for (Slot slot : slots) {
+            if (lectures.overlaps(slot.occupancy) || best != null && slot.used >= best.used) {
+                continue;
+            }
+            if (fallback == null || slot.used < fallback.used) {
+                fallback = slot;
+            }
+            String free = freeInstructor(slot);
+            if (free != null) {
+                best = slot;
+                teacher = free;
+            }
+        }
+        if (best == null) {
+            // Nobody is free anywhere; keep the time clear of the lectures and leave the staffing open
+            best = fallback != null ? fallback : slots.get(0);
+            teacher = UNASSIGNED;
+        }
+        best.used++;
+        if (!UNASSIGNED.equals(teacher)) {
+            booked.put(teacher, booked(teacher).union(best.occupancy));
+            load.merge(teacher, 1, Integer::sum);
+        }
+        return new Section(name, best, teacher);
+    }
+
+    private void remove(Section section) {
+        section.slot.used--;
+        if (!section.isAssigned()) {
+            return;
+        }
+        load.merge(section.instructor, -1, Integer::sum);
+        WeekOccupancy occupancy = committed(section.instructor);
+        for (Section other : sections) {
+            if (other.instructor.equals(section.instructor)) {
+                occupancy = occupancy.union(other.slot.occupancy);
+            }
+        }
+        booked.put(section.instructor, occupancy);
+    }
+
+    // The least loaded instructor free at the slot, or null
+    private String freeInstructor(Slot slot) {
+        String chosen = null;
+        for (String instructor : instructors) {
+            if (!booked(instructor).overlaps(slot.occupancy)
+                    && (chosen == null || load.getOrDefault(instructor, 0) < load.getOrDefault(chosen, 0))) {
+                chosen = instructor;
+            }
+        }
+        return chosen;
+    }
+
+    private WeekOccupancy booked(String instructor) {
+        WeekOccupancy occupancy = booked.get(instructor);
+        if (occupancy == null) {
+            occupancy = committed(instructor);
+            booked.put(instructor, occupancy);
+        }
+        return occupancy;
+    }
+
+    // Everything the instructor teaches in the repository apart from the labs of this course,
+    // which are being planned here. Lectures of its sections still count.
+    private WeekOccupancy committed(String instructor) {
+        WeekOccupancy occupancy = committed.get(instructor);
+        if (occupancy == null) {
+            occupancy = WeekOccupancy.EMPTY;
+            for (Course course : CourseRepository.findByInstructor(instructor)) {
+                occupancy = occupancy.union(course.courseCode.equals(courseCode)
+                        ? WeekOccupancy.of(course.lectureDays, course.lectureTime, false, null, null)
+                        : course.occupancy);
+            }
+            committed.put(instructor, occupancy);
+        }
+        return occupancy;
+    }
+}
@@ -0,0 +1,277 @@
+package com.sanchit.timetable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Registration-rush simulation, started with
+//   java ... com.sanchit.timetable.Main loadtest [--students N] [--actions N] [--drop-rate P]
+//        [--think-ms N] [--catalog courses.csv | --courses N] [--capacity N] [--threads N] [--seed N]
+// Every synthetic student runs on its own thread and, once registration opens, makes a
+// sequence of add and drop attempts against the catalog in CourseRepository through an
+// EnrollmentStore, so the same already-enrolled and time conflict rules as the Add Course page
+// apply. The latency of every attempt is recorded; throughput and percentiles go to stdout.
+//
+// Students run on virtual threads when the JVM has them (Java 21 and later). On older JVMs
+// they share a pool of --threads platform threads, which caps how many are in flight at once.
+class LoadSimulator {
+    private static final String USAGE = "Usage: loadtest [--students <n>] [--actions <n>] [--drop-rate <0..1>]"
+            + " [--think-ms <n>] [--catalog <courses.csv> | --courses <n>] [--capacity <n>] [--threads <n>]"
+            + " [--seed <n>]";
+    private static final String[] DAY_PATTERNS = { "MWF", "TTh", "MW", "TThF", "MTWTh" };
+
+    private int students = 30_000;
+    private int actions = 10;
+    private double dropRate = 0.1;
+    private int thinkMillis;
+    private File catalog;
+    private int syntheticCourses = 2000;
+    // Seats per section, 0 for unlimited
+    private int capacity;
+    private int threads = 256;
+    private long seed = 42;
+
+    // Outcome counters, indexed by EnrollmentStore.Status ordinal
+    private final AtomicLongArray outcomes = new AtomicLongArray(EnrollmentStore.Status.values().length);
+
+    // Returns the process exit code: 0 after a completed run, 2 for bad arguments or input
+    static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        LoadSimulator simulator = new LoadSimulator();
+        try {
+            simulator.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+        try {
+            simulator.execute();
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--students" -> students = nonNegative(args[i], value);
+                case "--actions" -> actions = nonNegative(args[i], value);
+                case "--think-ms" -> thinkMillis = nonNegative(args[i], value);
+                case "--courses" -> syntheticCourses = nonNegative(args[i], value);
+                case "--capacity" -> capacity = nonNegative(args[i], value);
+                case "--threads" -> threads = positive(args[i], value);
+                case "--catalog" -> catalog = new File(require(args[i], value));
+                case "--seed" -> seed = Long.parseLong(require(args[i], value));
+                case "--drop-rate" -> {
+                    try {
+                        dropRate = Double.parseDouble(require(args[i], value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("--drop-rate needs a number");
+                    }
+                    if (dropRate < 0 || dropRate > 1) {
+                        throw new IllegalArgumentException("--drop-rate must be between 0 and 1");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            i++;
+        }
+    }
+
+    private static int nonNegative(String option, String value) {
+        try {
+            int n = Integer.parseInt(require(option, value));
+            if (n < 0) {
+                throw new NumberFormatException();
+            }
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " needs a non-negative number");
+        }
+    }
+
+    // The pool needs at least one thread to run the students on
+    private static int positive(String option, String value) {
+        int n = nonNegative(option, value);
+        if (n == 0) {
+            throw new IllegalArgumentException(option + " needs a positive number");
+        }
+        return n;
+    }
+
+    private static String require(String option, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return value;
+    }
+
+    private void execute() throws Exception {
+        if (catalog != null) {
+            CourseCsvImporter.importFile(catalog);
+        } else if (CourseRepository.size() == 0) {
+            CourseRepository.addCourses(syntheticCatalog(syntheticCourses, new Random(seed)));
+        }
+        List<Course> courses = CourseRepository.courses();
+        if (courses.isEmpty()) {
+            throw new IllegalStateException("The catalog has no courses");
+        }
+
+        ExecutorService executor = newVirtualThreadExecutor();
+        boolean virtual = executor != null;
+        if (!virtual) {
+            executor = Executors.newFixedThreadPool(threads);
+        }
+        System.out.println("Simulating " + students + " students x " + actions + " actions on " + courses.size()
+                + " courses, " + (virtual ? "virtual threads" : threads + " platform threads"));
+
+        EnrollmentStore store = new EnrollmentStore();
+        if (capacity > 0) {
+            for (Course course : courses) {
+                store.seats().setCapacity(course, capacity, capacity);
+            }
+        }
+        long[] latencies = new long[Math.multiplyExact(students, actions)];
+        // Students are released together, like registration opening at a fixed time
+        CountDownLatch opening = new CountDownLatch(1);
+        long start;
+        try {
+            for (int s = 0; s < students; s++) {
+                int student = s;
+                executor.execute(() -> {
+                    try {
+                        opening.await();
+                        simulate(store, courses, student, latencies);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start = System.nanoTime();
+            opening.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        report(System.nanoTime() - start, latencies, store);
+        if (capacity > 0) {
+            checkSeats(store, courses);
+        }
+    }
+
+    // Every enrolled student must hold a seat and no section may be over capacity
+    private void checkSeats(EnrollmentStore store, List<Course> courses) {
+        Map<Course, Integer> enrolled = new IdentityHashMap<>();
+        for (int s = 0; s < students; s++) {
+            for (Course course : store.schedule("student-" + s).courses()) {
+                enrolled.merge(course, 1, Integer::sum);
+            }
+        }
+        int full = 0, mismatched = 0, waiting = 0;
+        for (Course course : courses) {
+            int taken = store.seats().taken(course);
+            if (taken != enrolled.getOrDefault(course, 0) || taken > capacity) {
+                mismatched++;
+            }
+            if (taken == capacity) {
+                full++;
+            }
+            waiting += store.seats().waitlist(course).size();
+        }
+        System.out.printf("Seats: %d of %d sections full, %d students waitlisted, %d sections oversold or out of"
+                + " step%n", full, courses.size(), waiting, mismatched);
+    }
+
+    // One student's session: add random courses, now and then dropping one again. Latencies
+    // go to the student's own range of the array.
+    private void simulate(EnrollmentStore store, List<Course> courses, int student, long[] latencies)
+            throws InterruptedException {
+        Random random = new Random(seed * 31 + student);
+        String studentId = "student-" + student;
+        for (int action = 0; action < actions; action++) {
+            if (thinkMillis > 0) {
+                Thread.sleep(random.nextInt(thinkMillis + 1));
+            }
+            EnrollmentStore.Schedule schedule = store.schedule(studentId);
+            long begin = System.nanoTime();
+            EnrollmentStore.Result result;
+            if (schedule.size() > 0 && random.nextDouble() < dropRate) {
+                result = store.drop(studentId, schedule.courses().get(random.nextInt(schedule.size())));
+            } else {
+                result = store.enroll(studentId, courses.get(random.nextInt(courses.size())));
+            }
+            latencies[student * actions + action] = System.nanoTime() - begin;
+            outcomes.incrementAndGet(result.status.ordinal());
+        }
+    }
+
+    private void report(long elapsedNanos, long[] latencies, EnrollmentStore store) {
+        double seconds = elapsedNanos / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("%d actions in %.3f s (%.0f actions/s), %d students with a schedule%n",
+                latencies.length, seconds, seconds > 0 ? latencies.length / seconds : 0.0, store.studentCount());
+        for (EnrollmentStore.Status status : EnrollmentStore.Status.values()) {
+            long count = outcomes.get(status.ordinal());
+            if (count > 0) {
+                System.out.printf("  %-18s %d%n", status, count);
+            }
+        }
+        System.out.printf("Latency (us): p50 %.1f  p99 %.1f  p999 %.1f  max %.1f%n",
+                percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                percentile(latencies, 0.999) / 1e3, latencies.length > 0 ? latencies[latencies.length - 1] / 1e3 : 0.0);
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() where the JVM has it, otherwise null. Looked
+    // up reflectively so the code still compiles and runs on Java 17.
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    // Sections of made-up courses spread over the usual lecture patterns and hours
+    static List<Course> syntheticCatalog(int count, Random random) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int hour = 8 + random.nextInt(9);
+            String code = "SIM F" + (100 + i / 4);
+            String time = hour + ":00 - " + (hour + 1) + ":00";
+            String days = DAY_PATTERNS[random.nextInt(DAY_PATTERNS.length)];
+            String instructor = "Instructor " + random.nextInt(Math.max(1, count / 3));
+            if (random.nextInt(10) < 3) {
+                int labHour = 14 + random.nextInt(2);
+                courses.add(new Course(code, "Simulated Course " + i / 4, "L" + (i % 4 + 1), "P" + (i % 4 + 1), true,
+                        days.length() > 3 ? 3 : 2, days, time, "F", labHour + ":00 - " + (labHour + 2) + ":00",
+                        instructor));
+            } else {
+                courses.add(new Course(code, "Simulated Course " + i / 4, "L" + (i % 4 + 1), "", false,
+                        days.length() > 3 ? 3 : 2, days, time, instructor));
+            }
+        }
+        return courses;
+    }
+}
@@ -5,20 +5,36 @@ package com.sanchit.timetable;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
-import javax.swing.table.DefaultTableModel;
 
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvValidationException;
+import com.sanchit.timetable.CatalogSnapshot.Slice;
 
 public class Main {
     public static void main(String[] args) {
+        // Headless bulk processing for servers and scripts, no windows at all
+        if (args.length > 0 && args[0].equals("batch")) {
+            System.exit(BatchRunner.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        // Registration-rush simulation against the enrollment rules
+        if (args.length > 0 && args[0].equals("loadtest")) {
+            System.exit(LoadSimulator.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        // Bring back the catalog from the last session before any window opens
+        CourseSnapshot.restore(CourseSnapshot.DEFAULT_FILE);
+        CourseSnapshot.saveOnExit(CourseSnapshot.DEFAULT_FILE);
         new RoleSelector();
     }
 }
@@ -62,6 +78,9 @@ class LoginWindow extends JFrame {
         JButton loginButton = new JButton("Login");
         loginButton.addActionListener(e -> {
             dispose();
+            if (role.equals("Student") && !emailField.getText().isBlank()) {
+                StudentDashboard.studentId = emailField.getText().trim().toLowerCase();
+            }
             switch (role) {
                 case "Admin" -> new AdminDashboard();
                 case "Instructor" -> new InstructorDashboard();
@@ -106,114 +125,507 @@ class Course {
     String labDays = "T"; // Default lab day
     String labTime = "2:00 - 4:00"; // Default lab time
     String instructorName = "Dr. Instructor"; // Default instructor name
+    // Precomputed week occupancy of lectures and lab, rebuilt whenever the timing changes
+    WeekOccupancy occupancy;
 
     // Original constructor
     public Course(String code, String name, String lec, String lab, boolean hasLab, int lectures) {
-        this.courseCode = code;
-        this.courseName = name;
-        this.lectureSection = lec;
-        this.labSection = lab;
-        this.hasLab = hasLab;
-        this.lectureCount = lectures;
+        setSections(code, name, lec, lab, hasLab, lectures);
+        updateOccupancy();
     }
 
     // Constructor with timing parameters and instructor (3-parameter version)
     public Course(String code, String name, String lec, String lab, boolean hasLab, int lectures,
             String lecDays, String lecTime, String instructor) {
-        this(code, name, lec, lab, hasLab, lectures);
-        this.lectureDays = lecDays;
-        this.lectureTime = lecTime;
-        this.instructorName = instructor;
+        setSections(code, name, lec, lab, hasLab, lectures);
+        this.lectureDays = CourseDictionary.intern(lecDays);
+        this.lectureTime = CourseDictionary.intern(lecTime);
+        this.instructorName = CourseDictionary.intern(instructor);
+        updateOccupancy();
     }
 
     // Full constructor with all parameters
     public Course(String code, String name, String lec, String lab, boolean hasLab, int lectures,
             String lecDays, String lecTime, String labDays, String labTime, String instructor) {
-        this(code, name, lec, lab, hasLab, lectures);
-        this.lectureDays = lecDays;
-        this.lectureTime = lecTime;
-        this.labDays = labDays;
-        this.labTime = labTime;
-        this.instructorName = instructor;
+        setSections(code, name, lec, lab, hasLab, lectures);
+        this.lectureDays = CourseDictionary.intern(lecDays);
+        this.lectureTime = CourseDictionary.intern(lecTime);
+        this.labDays = CourseDictionary.intern(labDays);
+        this.labTime = CourseDictionary.intern(labTime);
+        this.instructorName = CourseDictionary.intern(instructor);
+        updateOccupancy();
+    }
+
+    // Fields shared by all constructors; each builds the occupancy once, after its timing is set
+    private void setSections(String code, String name, String lec, String lab, boolean hasLab, int lectures) {
+        this.courseCode = code;
+        this.courseName = name;
+        this.lectureSection = CourseDictionary.intern(lec);
+        this.labSection = CourseDictionary.intern(lab);
+        this.hasLab = hasLab;
+        this.lectureCount = lectures;
+    }
+
+    // Course code and lecture section, which name a section whichever Course object holds it
+    String sectionKey() {
+        return courseCode + '\u0000' + lectureSection;
+    }
+
+    // A course with the same fields, to change without touching this one
+    Course copy() {
+        return new Course(courseCode, courseName, lectureSection, labSection, hasLab, lectureCount, lectureDays,
+                lectureTime, labDays, labTime, instructorName);
+    }
+
+    // Rebuild the occupancy bitmask from the timing fields
+    void updateOccupancy() {
+        this.occupancy = WeekOccupancy.of(lectureDays, lectureTime, hasLab, labDays, labTime);
+    }
+
+    // What is wrong with the timing, or null if the lectures (and lab) can be placed in the
+    // week. A timing that cannot be read occupies no time, so it would never clash.
+    String timingProblem() {
+        if (!WeekOccupancy.isReadable(lectureDays, lectureTime)) {
+            return "Unrecognized lecture timing";
+        }
+        if (hasLab && !WeekOccupancy.isReadable(labDays, labTime)) {
+            return "Unrecognized lab timing";
+        }
+        return null;
     }
 
     // Method to check for scheduling conflicts
     public boolean hasTimeConflict(Course other) {
-        // Check lecture conflicts - if days overlap and time is the same
-        for (char day : this.lectureDays.toCharArray()) {
-            if (other.lectureDays.indexOf(day) >= 0 && this.lectureTime.equals(other.lectureTime)) {
+        // Any overlap between lectures or labs of the two courses is a conflict
+        return occupancy.overlaps(other.occupancy);
+    }
+}
+
+// Thread-safe store of all courses. Readers never lock: every change publishes a new immutable
+// CatalogSnapshot (courses, conflict index and hash indexes) through a volatile field, so a
+// reader sees all of one version or all of the next. Published courses are never changed;
+// updates swap in changed copies. Changes are made by one writer at a time, which also
+// delivers the resulting events, so listeners see them in version order.
+class CourseRepository {
+    // Serializes writers; readers go through the published snapshot and slices instead
+    private static final Object writeLock = new Object();
+    private static volatile CatalogSnapshot current = CatalogSnapshot.EMPTY;
+    // All courses in insertion order; the array is shared with the snapshots (see Slice)
+    private static Slice allCourses = Slice.EMPTY;
+    // Listeners to notify when courses change, each with its own delivery queue
+    private static final List<Registration> listeners = new CopyOnWriteArrayList<>();
+    // Changes held back while a batch is open
+    private static int batchDepth;
+    private static final CourseChangeEvent.Coalescer batched = new CourseChangeEvent.Coalescer();
+    // Per-weekday interval index over all courses, for catalog-wide conflict lookups.
+    // Only the writer touches it; readers use the snapshot taken after each change.
+    private static final CourseIntervalIndex conflictIndex = new CourseIntervalIndex();
+    // Hash indexes: primary on course code, secondary on instructor and section labels.
+    // Like the conflict index, only the writer touches them and readers use snapshots.
+    private static final SliceIndex coursesByCode = new SliceIndex();
+    private static final SliceIndex coursesByInstructor = new SliceIndex();
+    private static final SliceIndex coursesBySection = new SliceIndex();
+
+    // The repository as it is now; stays the same however the repository changes afterwards
+    public static CatalogSnapshot snapshot() {
+        return current;
+    }
+
+    // All courses in the order they were added, as an unmodifiable list that does not change
+    public static List<Course> courses() {
+        return current.courses();
+    }
+
+    public static int size() {
+        return current.size();
+    }
+
+    // Number of changes made to the repository so far
+    public static long version() {
+        return current.version();
+    }
+
+    // Method to add a course to the repository
+    public static void addCourse(Course course) {
+        addCourses(List.of(course));
+    }
+
+    // Add a batch of courses
+    public static void addCourses(List<Course> courses) {
+        synchronized (writeLock) {
+            for (Course course : courses) {
+                allCourses = allCourses.append(course);
+                indexCourse(course);
+            }
+            publish(new ArrayList<>(courses), List.of(), List.of());
+        }
+    }
+
+    // Remove a course from the repository
+    public static void removeCourse(Course course) {
+        removeCourses(List.of(course));
+    }
+
+    // Remove a batch of courses, matched by identity
+    public static void removeCourses(Collection<Course> courses) {
+        synchronized (writeLock) {
+            Map<Course, Boolean> toRemove = new IdentityHashMap<>();
+            for (Course course : courses) {
+                toRemove.put(course, Boolean.TRUE);
+            }
+            List<Course> removed = new ArrayList<>();
+            allCourses = allCourses.without(c -> {
+                if (toRemove.remove(c) == null) {
+                    return false;
+                }
+                removed.add(c);
                 return true;
+            });
+            if (removed.isEmpty()) {
+                return;
+            }
+            // Each touched key is filtered once, however many of its courses go
+            Map<Course, Boolean> gone = new IdentityHashMap<>();
+            Set<String> codes = new HashSet<>(), instructors = new HashSet<>(), sections = new HashSet<>();
+            for (Course course : removed) {
+                conflictIndex.remove(course);
+                gone.put(course, Boolean.TRUE);
+                codes.add(course.courseCode);
+                instructors.add(course.instructorName);
+                sections.add(course.lectureSection);
+                if (course.hasLab) {
+                    sections.add(course.labSection);
+                }
             }
+            removeFromIndex(coursesByCode, codes, gone);
+            removeFromIndex(coursesByInstructor, instructors, gone);
+            removeFromIndex(coursesBySection, sections, gone);
+            publish(List.of(), removed, List.of());
         }
+    }
 
-        // Check lab conflicts if both courses have labs
-        if (this.hasLab && other.hasLab) {
-            for (char day : this.labDays.toCharArray()) {
-                if (other.labDays.indexOf(day) >= 0 && this.labTime.equals(other.labTime)) {
-                    return true;
+    // Change courses that are already in the repository (for example their timing),
+    // keeping every index in sync, with a single notification. change is handed each course
+    // and a copy of it to set the new fields on; the copy takes the course's place, so
+    // snapshots and readers holding the old object never see it change. Listeners get the old
+    // objects as removed and the copies as added. Returns the copies in the order given,
+    // leaving out courses not in the repository.
+    public static List<Course> updateCourses(Collection<Course> courses, BiConsumer<Course, Course> change) {
+        synchronized (writeLock) {
+            Map<Course, Course> copies = new IdentityHashMap<>();
+            List<Course> removed = new ArrayList<>(), added = new ArrayList<>();
+            for (Course course : courses) {
+                if (!conflictIndex.contains(course) || copies.containsKey(course)) {
+                    continue;
                 }
+                Course copy = course.copy();
+                change.accept(course, copy);
+                copy.updateOccupancy();
+                copies.put(course, copy);
+                removed.add(course);
+                added.add(copy);
+                conflictIndex.remove(course);
+                conflictIndex.add(copy);
+            }
+            if (copies.isEmpty()) {
+                return added;
             }
+            allCourses = allCourses.replacing(copies);
+            refile(coursesByCode, copies, course -> Collections.singleton(course.courseCode));
+            refile(coursesByInstructor, copies, course -> Collections.singleton(course.instructorName));
+            refile(coursesBySection, copies, CourseRepository::sectionKeys);
+            publish(added, removed, List.of());
+            return added;
         }
+    }
 
-        return false;
+    private static void indexCourse(Course course) {
+        conflictIndex.add(course);
+        addToHashIndexes(course);
     }
-}
 
-class CourseRepository {
-    // Static list to store all available courses in the system
-    public static List<Course> allCourses = new ArrayList<>();
-    // List of listeners to notify when courses change
-    private static List<CourseRepositoryListener> listeners = new ArrayList<>();
+    private static void addToHashIndexes(Course course) {
+        addToIndex(coursesByCode, course.courseCode, course);
+        addToIndex(coursesByInstructor, course.instructorName, course);
+        addToIndex(coursesBySection, course.lectureSection, course);
+        if (course.hasLab && !course.labSection.equals(course.lectureSection)) {
+            addToIndex(coursesBySection, course.labSection, course);
+        }
+    }
 
-    // Method to add a course to the repository
-    public static void addCourse(Course course) {
-        allCourses.add(course);
-        // Notify all listeners that a course was added
-        notifyListeners();
+    // The section labels a course is filed under: its lecture section and lab section
+    private static Set<String> sectionKeys(Course course) {
+        Set<String> sections = new HashSet<>();
+        sections.add(course.lectureSection);
+        if (course.hasLab) {
+            sections.add(course.labSection);
+        }
+        return sections;
     }
 
-    // Add a batch of courses
-    public static void addCourses(List<Course> courses) {
-        allCourses.addAll(courses);
-        notifyListeners();
+    // Swap the old courses (keys of copies) for their copies under the keys both are filed
+    // under, and move them where the keys differ
+    private static void refile(SliceIndex index, Map<Course, Course> copies,
+            Function<Course, Set<String>> keysOf) {
+        Set<String> touched = new HashSet<>();
+        Map<String, Map<Course, Boolean>> leaving = new HashMap<>();
+        Map<String, List<Course>> arriving = new HashMap<>();
+        for (Map.Entry<Course, Course> entry : copies.entrySet()) {
+            Set<String> before = keysOf.apply(entry.getKey()), after = keysOf.apply(entry.getValue());
+            touched.addAll(before);
+            for (String key : before) {
+                if (!after.contains(key)) {
+                    leaving.computeIfAbsent(key, k -> new IdentityHashMap<>()).put(entry.getKey(), Boolean.TRUE);
+                }
+            }
+            for (String key : after) {
+                if (!before.contains(key)) {
+                    arriving.computeIfAbsent(key, k -> new ArrayList<>()).add(entry.getValue());
+                }
+            }
+        }
+        for (String key : touched) {
+            Slice courses = key == null ? null : index.get(key);
+            if (courses != null) {
+                Map<Course, Boolean> gone = leaving.get(key);
+                if (gone != null) {
+                    removeFromIndex(index, Collections.singleton(key), gone);
+                    courses = index.get(key);
+                }
+                if (courses != null) {
+                    index.put(key, courses.replacing(copies));
+                }
+            }
+        }
+        for (Map.Entry<String, List<Course>> entry : arriving.entrySet()) {
+            for (Course course : entry.getValue()) {
+                addToIndex(index, entry.getKey(), course);
+            }
+        }
+    }
+
+    private static void addToIndex(SliceIndex index, String key, Course course) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        Slice courses = index.get(key);
+        index.put(key, (courses != null ? courses : Slice.EMPTY).append(course));
+    }
+
+    // Drop the courses in gone (an identity map) from the slices under the keys
+    private static void removeFromIndex(SliceIndex index, Set<String> keys, Map<Course, Boolean> gone) {
+        for (String key : keys) {
+            Slice courses = key == null ? null : index.get(key);
+            if (courses == null) {
+                continue;
+            }
+            courses = courses.without(gone::containsKey);
+            if (courses.size == 0) {
+                index.remove(key);
+            } else {
+                index.put(key, courses);
+            }
+        }
     }
 
-    // Add a listener to be notified of changes
+    // All sections offered under a course code
+    public static List<Course> findByCode(String courseCode) {
+        return current.findByCode(courseCode);
+    }
+
+    // All sections taught by an instructor
+    public static List<Course> findByInstructor(String instructorName) {
+        return current.findByInstructor(instructorName);
+    }
+
+    // All courses with the given lecture or lab section label
+    public static List<Course> findBySection(String section) {
+        return current.findBySection(section);
+    }
+
+    // The given lecture section of a course in the repository, or null
+    public static Course findSection(String courseCode, String lectureSection) {
+        for (Course c : findByCode(courseCode)) {
+            if (c.lectureSection.equals(lectureSection)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    // Check if a specific lecture section of a course is already in the repository
+    public static boolean sectionExists(String courseCode, String lectureSection) {
+        return findSection(courseCode, lectureSection) != null;
+    }
+
+    // Find every course in the repository whose lectures or labs overlap the candidate
+    public static List<Course> findConflicts(Course candidate) {
+        return current.findConflicts(candidate);
+    }
+
+    // Add a listener that is told about every change on the thread making it, before the
+    // change call returns (indexes that must never be stale)
     public static void addListener(CourseRepositoryListener listener) {
-        listeners.add(listener);
+        addListener(listener, null);
     }
 
-    // Notify all listeners of changes
-    private static void notifyListeners() {
-        for (CourseRepositoryListener listener : listeners) {
-            listener.coursesUpdated();
+    // Add a listener whose events are handed to the executor, e.g. SwingUtilities::invokeLater.
+    // Changes made before the executor runs the delivery are coalesced into one event.
+    public static void addListener(CourseRepositoryListener listener, Executor executor) {
+        listeners.add(new Registration(listener, executor));
+    }
+
+    // Add a synchronous listener and hand it the courses already in the repository as one
+    // added event, with no change slipping in between
+    public static void addListenerAndReplay(CourseRepositoryListener listener) {
+        synchronized (writeLock) {
+            CatalogSnapshot snapshot = current;
+            listener.repositoryChanged(new CourseChangeEvent(snapshot.version(), snapshot.version(),
+                    new ArrayList<>(snapshot.courses()), List.of(), List.of()));
+            addListener(listener);
+        }
+    }
+
+    // Stop notifying a listener, e.g. when its window closes
+    public static void removeListener(CourseRepositoryListener listener) {
+        listeners.removeIf(r -> r.listener == listener);
+    }
+
+    // Hold back notifications until the matching endBatch, then send the changes made in
+    // between as a single event. Batches nest and span all threads.
+    public static void beginBatch() {
+        synchronized (writeLock) {
+            batchDepth++;
+        }
+    }
+
+    public static void endBatch() {
+        synchronized (writeLock) {
+            if (batchDepth == 0) {
+                throw new IllegalStateException("endBatch without beginBatch");
+            }
+            if (--batchDepth > 0 || batched.isEmpty()) {
+                return;
+            }
+            deliver(batched.drain());
+        }
+    }
+
+    // Make the writer's changes visible to readers and tell the listeners (writer lock held)
+    private static void publish(List<Course> added, List<Course> removed, List<Course> changed) {
+        long from = current.version();
+        current = new CatalogSnapshot(from + 1, allCourses, conflictIndex.snapshot(), coursesByCode.snapshot(),
+                coursesByInstructor.snapshot(), coursesBySection.snapshot());
+        CourseChangeEvent event = new CourseChangeEvent(from, from + 1, added, removed, changed);
+        if (batchDepth > 0) {
+            batched.merge(event);
+        } else {
+            deliver(event);
+        }
+    }
+
+    private static void deliver(CourseChangeEvent event) {
+        for (Registration registration : listeners) {
+            registration.publish(event);
+        }
+    }
+
+    private static class Registration {
+        final CourseRepositoryListener listener;
+        final Executor executor;
+        // Changes not yet handed to the listener, and whether a delivery is queued
+        private final CourseChangeEvent.Coalescer pending = new CourseChangeEvent.Coalescer();
+        private boolean scheduled;
+
+        Registration(CourseRepositoryListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        void publish(CourseChangeEvent event) {
+            if (executor == null) {
+                listener.repositoryChanged(event);
+                return;
+            }
+            synchronized (this) {
+                pending.merge(event);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            executor.execute(this::flush);
+        }
+
+        private void flush() {
+            CourseChangeEvent event;
+            synchronized (this) {
+                scheduled = false;
+                event = pending.drain();
+            }
+            // Removed again before delivery, or the listener was removed meanwhile
+            if (!event.isEmpty() && isRegistered()) {
+                listener.repositoryChanged(event);
+            }
+        }
+
+        private boolean isRegistered() {
+            return listeners.contains(this);
         }
     }
 
-    // Interface for listeners
+    // Interface for listeners; the per-change callbacks are optional
     public interface CourseRepositoryListener {
         void coursesUpdated();
+
+        default void coursesAdded(List<Course> courses) {
+        }
+
+        default void coursesRemoved(List<Course> courses) {
+        }
+
+        // Courses removed and added back within one (coalesced) event
+        default void coursesChanged(List<Course> courses) {
+        }
+
+        // Called once per (possibly coalesced) event; by default split into the callbacks
+        // above, followed by coursesUpdated
+        default void repositoryChanged(CourseChangeEvent event) {
+            if (!event.removed().isEmpty()) {
+                coursesRemoved(event.removed());
+            }
+            if (!event.added().isEmpty()) {
+                coursesAdded(event.added());
+            }
+            if (!event.changed().isEmpty()) {
+                coursesChanged(event.changed());
+            }
+            coursesUpdated();
+        }
     }
 
     // Check if a course with given code already exists
     public static boolean courseExists(String courseCode) {
-        for (Course c : allCourses) {
-            if (c.courseCode.equals(courseCode)) {
-                return true;
-            }
-        }
-        return false;
+        return current.hasCode(courseCode);
     }
 }
 
 class StudentDashboard extends JFrame {
-    public static void addCourse(Course course) {
-        myCourses.add(course);
+    // ID of the logged in student (the login email), used as the enrollment key
+    public static String studentId = "student";
+
+    public static EnrollmentStore.Result addCourse(Course course) {
+        return EnrollmentStore.shared().enroll(studentId, course);
     }
 
-    public static List<Course> myCourses = new ArrayList<>(List.of(
-            new Course("CS201", "Data Structures", "L5", "LB5", true, 3),
-            new Course("CS301", "Operating Systems", "L6", "", false, 2)));
+    public static EnrollmentStore.Result dropCourse(Course course) {
+        return EnrollmentStore.shared().drop(studentId, course);
+    }
+
+    // Courses the logged in student is enrolled in
+    public static List<Course> myCourses() {
+        return EnrollmentStore.shared().schedule(studentId).courses();
+    }
 
     public StudentDashboard() {
         setTitle("Student Dashboard");
@@ -236,6 +648,7 @@ class StudentDashboard extends JFrame {
 
     private JPanel getStatsPanel() {
         JPanel panel = new JPanel(new GridLayout(1, 3));
+        List<Course> myCourses = myCourses();
         int courseCount = myCourses.size();
         int totalLectures = myCourses.stream().mapToInt(c -> c.lectureCount).sum();
         int totalLabs = (int) myCourses.stream().filter(c -> c.hasLab).count();
@@ -249,7 +662,7 @@ class StudentDashboard extends JFrame {
 
     private JScrollPane getMyCoursesPanel() {
         JPanel panel = new JPanel(new GridLayout(0, 2, 10, 10));
-        for (Course c : myCourses) {
+        for (Course c : myCourses()) {
             JButton btn = new JButton(c.courseCode + ": " + c.courseName);
             btn.addActionListener(e -> new ViewCoursePage(c, "Student"));
             panel.add(btn);
@@ -261,7 +674,7 @@ class StudentDashboard extends JFrame {
         JPanel panel = new JPanel();
 
         JButton timetableBtn = new JButton("View Timetable");
-        timetableBtn.addActionListener(e -> new StudentTimetablePage(myCourses));
+        timetableBtn.addActionListener(e -> new StudentTimetablePage(myCourses()));
 
         JButton addCourseBtn = new JButton("Add Course");
         addCourseBtn.addActionListener(e -> new StudentAddCoursePage());
@@ -288,29 +701,49 @@ class StudentAddCoursePage extends JFrame {
         titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
         titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
-        // Create table model for courses
-        String[] columnNames = { "Course Code", "Course Name", "Instructor", "Schedule", "Section" };
-        DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0) {
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table non-editable
+        // Table model reading straight from the repository, only visible rows are formatted
+        CourseCatalogTableModel tableModel = new CourseCatalogTableModel();
+        CourseRepository.addListener(tableModel, SwingUtilities::invokeLater);
+        addWindowListener(new WindowAdapter() {
+            public void windowClosed(WindowEvent e) {
+                CourseRepository.removeListener(tableModel);
             }
-        };
-
-        // Populate table with courses from repository
-        for (Course course : CourseRepository.allCourses) {
-            tableModel.addRow(new Object[] {
-                    course.courseCode,
-                    course.courseName,
-                    course.instructorName,
-                    formatDayPattern(course.lectureDays) + " " + course.lectureTime,
-                    course.lectureSection
-            });
-        }
+        });
 
         JTable courseTable = new JTable(tableModel);
         courseTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         courseTable.setRowHeight(25);
 
+        // Click a column header to sort by it, click again to reverse
+        courseTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            public void mouseClicked(MouseEvent e) {
+                int column = courseTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    courseTable.clearSelection();
+                    tableModel.toggleSort(courseTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
+
+        // Filter as the student types
+        JTextField filterField = new JTextField();
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                tableModel.setFilter(filterField.getText());
+            }
+
+            public void removeUpdate(DocumentEvent e) {
+                tableModel.setFilter(filterField.getText());
+            }
+
+            public void changedUpdate(DocumentEvent e) {
+                tableModel.setFilter(filterField.getText());
+            }
+        });
+        JPanel filterPanel = new JPanel(new BorderLayout(5, 5));
+        filterPanel.add(new JLabel("Search:"), BorderLayout.WEST);
+        filterPanel.add(filterField, BorderLayout.CENTER);
+
         // Set column widths
         courseTable.getColumnModel().getColumn(0).setPreferredWidth(80); // Code
         courseTable.getColumnModel().getColumn(1).setPreferredWidth(200); // Name
@@ -335,7 +768,7 @@ class StudentAddCoursePage extends JFrame {
             if (!e.getValueIsAdjusting()) {
                 int selectedRow = courseTable.getSelectedRow();
                 if (selectedRow >= 0) {
-                    Course selectedCourse = CourseRepository.allCourses.get(selectedRow);
+                    Course selectedCourse = tableModel.getCourseAt(selectedRow);
                     detailsArea.setText(
                             "Course: " + selectedCourse.courseCode + " - " + selectedCourse.courseName + "\n" +
                                     "Instructor: " + selectedCourse.instructorName + "\n" +
@@ -360,35 +793,16 @@ class StudentAddCoursePage extends JFrame {
         addButton.addActionListener(e -> {
             int selectedRow = courseTable.getSelectedRow();
             if (selectedRow >= 0) {
-                Course selectedCourse = CourseRepository.allCourses.get(selectedRow);
+                Course selectedCourse = tableModel.getCourseAt(selectedRow);
 
-                // Check if already enrolled
-                boolean alreadyEnrolled = false;
-                for (Course c : StudentDashboard.myCourses) {
-                    if (c.courseCode.equals(selectedCourse.courseCode)) {
-                        alreadyEnrolled = true;
-                        break;
-                    }
-                }
-
-                if (alreadyEnrolled) {
-                    JOptionPane.showMessageDialog(this,
+                // Enroll, checking for a section already taken and for scheduling conflicts
+                EnrollmentStore.Result result = StudentDashboard.addCourse(selectedCourse);
+                switch (result.status) {
+                    case ALREADY_ENROLLED -> JOptionPane.showMessageDialog(this,
                             "You are already enrolled in this course.",
                             "Already Enrolled", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    // Check for scheduling conflicts
-                    boolean hasConflict = false;
-                    Course conflictingCourse = null;
-
-                    for (Course existingCourse : StudentDashboard.myCourses) {
-                        if (selectedCourse.hasTimeConflict(existingCourse)) {
-                            hasConflict = true;
-                            conflictingCourse = existingCourse;
-                            break;
-                        }
-                    }
-
-                    if (hasConflict) {
+                    case CONFLICT -> {
+                        Course conflictingCourse = result.other;
                         JOptionPane.showMessageDialog(this,
                                 "Cannot add course due to scheduling conflict with: " +
                                         conflictingCourse.courseCode + " - " + conflictingCourse.courseName + "\n" +
@@ -396,9 +810,18 @@ class StudentAddCoursePage extends JFrame {
                                         +
                                         conflictingCourse.lectureTime,
                                 "Schedule Conflict", JOptionPane.ERROR_MESSAGE);
-                    } else {
-                        // Add to student's courses
-                        StudentDashboard.addCourse(selectedCourse);
+                    }
+                    case UNREADABLE_TIMING -> JOptionPane.showMessageDialog(this,
+                            "The timing of this course (" + selectedCourse.timingProblem().toLowerCase()
+                                    + ") cannot be checked for conflicts. Please contact the admin.",
+                            "Unrecognized Timing", JOptionPane.ERROR_MESSAGE);
+                    case WAITLISTED, ALREADY_WAITLISTED -> JOptionPane.showMessageDialog(this,
+                            "This section is full. You are number "
+                                    + EnrollmentStore.shared().seats().waitlistPosition(selectedCourse,
+                                            StudentDashboard.studentId)
+                                    + " on the waitlist and will be enrolled when a seat frees up.",
+                            "Waitlisted", JOptionPane.INFORMATION_MESSAGE);
+                    default -> {
                         JOptionPane.showMessageDialog(this,
                                 "Successfully enrolled in " + selectedCourse.courseCode,
                                 "Enrollment Successful", JOptionPane.INFORMATION_MESSAGE);
@@ -423,8 +846,12 @@ class StudentAddCoursePage extends JFrame {
         buttonPanel.add(cancelButton);
 
         // Assemble main panel
+        JPanel titlePanel = new JPanel(new BorderLayout(5, 5));
+        titlePanel.add(titleLabel, BorderLayout.NORTH);
+        titlePanel.add(filterPanel, BorderLayout.SOUTH);
+
         JPanel topPanel = new JPanel(new BorderLayout());
-        topPanel.add(titleLabel, BorderLayout.NORTH);
+        topPanel.add(titlePanel, BorderLayout.NORTH);
         topPanel.add(scrollPane, BorderLayout.CENTER);
 
         mainPanel.add(topPanel, BorderLayout.CENTER);
@@ -437,40 +864,8 @@ class StudentAddCoursePage extends JFrame {
     }
 
     // Helper method to format day pattern for display
-    private String formatDayPattern(String dayPattern) {
-        StringBuilder formatted = new StringBuilder();
-        for (char day : dayPattern.toCharArray()) {
-            switch (day) {
-                case 'M':
-                    formatted.append("Mon");
-                    break;
-                case 'T':
-                    if (dayPattern.contains("Th") && dayPattern.indexOf("Th") == dayPattern.indexOf("T")) {
-                        // This T is part of Th, skip it
-                        continue;
-                    }
-                    formatted.append("Tue");
-                    break;
-                case 'W':
-                    formatted.append("Wed");
-                    break;
-                case 'h':
-                    if (dayPattern.contains("Th") && dayPattern.indexOf("h") == dayPattern.indexOf("T") + 1) {
-                        // This is the h in Th, already handled with T
-                        continue;
-                    }
-                    break;
-                case 'F':
-                    formatted.append("Fri");
-                    break;
-            }
-            formatted.append("/");
-        }
-        // Remove trailing slash
-        if (formatted.length() > 0) {
-            formatted.deleteCharAt(formatted.length() - 1);
-        }
-        return formatted.toString();
+    static String formatDayPattern(String dayPattern) {
+        return DayPattern.of(dayPattern).format();
     }
 }
 
@@ -492,7 +887,8 @@ class ViewCoursePage extends JFrame {
                         "Credits: 3\n" +
                         "Lectures/Week: " + course.lectureCount + "\n" +
                         "Schedule: " + course.lectureDays + " " + course.lectureTime + "\n" +
-                        "Venue: Room 101");
+                        "Venue: " + venue(course, false) +
+                        (course.hasLab ? "\nLab Venue: " + venue(course, true) : ""));
         info.setEditable(false);
         add(info, BorderLayout.CENTER);
 
@@ -507,11 +903,41 @@ class ViewCoursePage extends JFrame {
                 new AdminDashboard();
         });
 
+        SeatInventory seats = EnrollmentStore.shared().seats();
+        if (seats.capacity(course) != SeatInventory.UNLIMITED) {
+            info.append("\nSeats: " + seats.taken(course) + " of " + seats.capacity(course) + " taken, "
+                    + seats.waitlist(course).size() + " waitlisted");
+        }
+
         JPanel bottomPanel = new JPanel();
+        if (source.equals("Student") && StudentDashboard.myCourses().contains(course)) {
+            JButton dropBtn = new JButton("Drop Course");
+            dropBtn.setForeground(Color.RED);
+            dropBtn.addActionListener(e -> {
+                int choice = JOptionPane.showConfirmDialog(this, "Drop " + course.courseCode + "?",
+                        "Drop Course", JOptionPane.YES_NO_OPTION);
+                if (choice == JOptionPane.YES_OPTION) {
+                    StudentDashboard.dropCourse(course);
+                    dispose();
+                    new StudentDashboard();
+                }
+            });
+            bottomPanel.add(dropBtn);
+        }
         bottomPanel.add(backBtn);
         add(bottomPanel, BorderLayout.SOUTH);
         setVisible(true);
     }
+
+    // Room from the current allocation over the room inventory
+    private static String venue(Course course, boolean lab) {
+        RoomAllocator.Allocation allocation = RoomAllocator.current();
+        if (allocation == null) {
+            return "No room inventory";
+        }
+        RoomAllocator.Room room = allocation.roomOf(course, lab);
+        return room != null ? room.name : "Not assigned";
+    }
 }
 
 class HeaderUtil {
@@ -558,7 +984,7 @@ class HeaderUtil {
                 public void mouseClicked(MouseEvent e) {
                     ((Window) parent).dispose();
                     if (userType.equals("Student"))
-                        new StudentTimetablePage(StudentDashboard.myCourses);
+                        new StudentTimetablePage(StudentDashboard.myCourses());
                     else
                         new InstructorTimetablePage(InstructorDashboard.myCourses);
                 }
@@ -585,22 +1011,8 @@ class StudentTimetablePage extends JFrame {
         setLayout(new BorderLayout());
         add(HeaderUtil.createHeader(this, "Student"), BorderLayout.NORTH);
 
-        // Create timetable
-        String[] columnNames = { "Time", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
-        String[] timeSlots = {
-                "8:00 - 9:00", "9:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00",
-                "12:00 - 1:00", "1:00 - 2:00", "2:00 - 3:00", "3:00 - 4:00", "4:00 - 5:00"
-        };
-
-        Object[][] data = new Object[timeSlots.length][6];
-        for (int i = 0; i < timeSlots.length; i++) {
-            data[i][0] = timeSlots[i];
-            for (int j = 1; j < 6; j++) {
-                data[i][j] = "";
-            }
-        }
-
-        DefaultTableModel model = new DefaultTableModel(data, columnNames);
+        // Create timetable filled with course info
+        TimetableTableModel model = new TimetableTableModel(courses);
         JTable timetableTable = new JTable(model);
         timetableTable.setRowHeight(60);
         timetableTable.getColumnModel().getColumn(0).setPreferredWidth(100);
@@ -608,92 +1020,6 @@ class StudentTimetablePage extends JFrame {
             timetableTable.getColumnModel().getColumn(i).setPreferredWidth(150);
         }
 
-        // Fill the timetable with course info
-        for (Course course : courses) {
-            // Find the time slot row
-            int rowIndex = -1;
-            for (int i = 0; i < timeSlots.length; i++) {
-                if (timeSlots[i].equals(course.lectureTime)) {
-                    rowIndex = i;
-                    break;
-                }
-            }
-
-            if (rowIndex != -1) {
-                // For each day in the pattern, add the course
-                for (char day : course.lectureDays.toCharArray()) {
-                    int colIndex;
-                    switch (day) {
-                        case 'M':
-                            colIndex = 1;
-                            break; // Monday
-                        case 'T':
-                            // Check if this T is part of Th
-                            if (course.lectureDays.contains("Th") &&
-                                    course.lectureDays.indexOf("T") == course.lectureDays.indexOf("Th")) {
-                                colIndex = 4; // Thursday
-                            } else {
-                                colIndex = 2; // Tuesday
-                            }
-                            break;
-                        case 'W':
-                            colIndex = 3;
-                            break; // Wednesday
-                        case 'F':
-                            colIndex = 5;
-                            break; // Friday
-                        default:
-                            continue; // Skip unknown days
-                    }
-
-                    // Add course to cell
-                    String cellContent = course.courseCode + "\n" + course.courseName;
-                    model.setValueAt(cellContent, rowIndex, colIndex);
-                }
-            }
-
-            // If has lab, add lab sessions too
-            if (course.hasLab) {
-                // Find lab time slot
-                int labRowIndex = -1;
-                for (int i = 0; i < timeSlots.length; i++) {
-                    if (timeSlots[i].equals(course.labTime)) {
-                        labRowIndex = i;
-                        break;
-                    }
-                }
-
-                if (labRowIndex != -1) {
-                    // For each lab day, add to timetable
-                    for (char day : course.labDays.toCharArray()) {
-                        int colIndex;
-                        switch (day) {
-                            case 'M':
-                                colIndex = 1;
-                                break; // Monday
-                            case 'T':
-                                colIndex = 2;
-                                break; // Tuesday
-                            case 'W':
-                                colIndex = 3;
-                                break; // Wednesday
-                            case 'h':
-                                continue; // Part of Th, skip
-                            case 'F':
-                                colIndex = 5;
-                                break; // Friday
-                            default:
-                                continue;
-                        }
-
-                        // Add lab to cell
-                        String cellContent = course.courseCode + " (Lab)\n" + course.labSection;
-                        model.setValueAt(cellContent, labRowIndex, colIndex);
-                    }
-                }
-            }
-        }
-
         add(new JScrollPane(timetableTable), BorderLayout.CENTER);
 
         JButton backBtn = new JButton("Back to Dashboard");
@@ -722,22 +1048,8 @@ class InstructorTimetablePage extends JFrame {
         setLayout(new BorderLayout());
         add(HeaderUtil.createHeader(this, "Instructor"), BorderLayout.NORTH);
 
-        // Create timetable (similar to StudentTimetablePage)
-        String[] columnNames = { "Time", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
-        String[] timeSlots = {
-                "8:00 - 9:00", "9:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00",
-                "12:00 - 1:00", "1:00 - 2:00", "2:00 - 3:00", "3:00 - 4:00", "4:00 - 5:00"
-        };
-
-        Object[][] data = new Object[timeSlots.length][6];
-        for (int i = 0; i < timeSlots.length; i++) {
-            data[i][0] = timeSlots[i];
-            for (int j = 1; j < 6; j++) {
-                data[i][j] = "";
-            }
-        }
-
-        DefaultTableModel model = new DefaultTableModel(data, columnNames);
+        // Create timetable filled with course info
+        TimetableTableModel model = new TimetableTableModel(courses);
         JTable timetableTable = new JTable(model);
         timetableTable.setRowHeight(60);
         timetableTable.getColumnModel().getColumn(0).setPreferredWidth(100);
@@ -745,92 +1057,6 @@ class InstructorTimetablePage extends JFrame {
             timetableTable.getColumnModel().getColumn(i).setPreferredWidth(150);
         }
 
-        // Fill the timetable with course info
-        for (Course course : courses) {
-            // Find the time slot row
-            int rowIndex = -1;
-            for (int i = 0; i < timeSlots.length; i++) {
-                if (timeSlots[i].equals(course.lectureTime)) {
-                    rowIndex = i;
-                    break;
-                }
-            }
-
-            if (rowIndex != -1) {
-                // For each day in the pattern, add the course
-                for (char day : course.lectureDays.toCharArray()) {
-                    int colIndex;
-                    switch (day) {
-                        case 'M':
-                            colIndex = 1;
-                            break; // Monday
-                        case 'T':
-                            // Check if this T is part of Th
-                            if (course.lectureDays.contains("Th") &&
-                                    course.lectureDays.indexOf("T") == course.lectureDays.indexOf("Th")) {
-                                colIndex = 4; // Thursday
-                            } else {
-                                colIndex = 2; // Tuesday
-                            }
-                            break;
-                        case 'W':
-                            colIndex = 3;
-                            break; // Wednesday
-                        case 'F':
-                            colIndex = 5;
-                            break; // Friday
-                        default:
-                            continue; // Skip unknown days
-                    }
-
-                    // Add course to cell
-                    String cellContent = course.courseCode + "\n" + course.courseName;
-                    model.setValueAt(cellContent, rowIndex, colIndex);
-                }
-            }
-
-            // If has lab, add lab sessions too
-            if (course.hasLab) {
-                // Find lab time slot
-                int labRowIndex = -1;
-                for (int i = 0; i < timeSlots.length; i++) {
-                    if (timeSlots[i].equals(course.labTime)) {
-                        labRowIndex = i;
-                        break;
-                    }
-                }
-
-                if (labRowIndex != -1) {
-                    // For each lab day, add to timetable
-                    for (char day : course.labDays.toCharArray()) {
-                        int colIndex;
-                        switch (day) {
-                            case 'M':
-                                colIndex = 1;
-                                break; // Monday
-                            case 'T':
-                                colIndex = 2;
-                                break; // Tuesday
-                            case 'W':
-                                colIndex = 3;
-                                break; // Wednesday
-                            case 'h':
-                                continue; // Part of Th, skip
-                            case 'F':
-                                colIndex = 5;
-                                break; // Friday
-                            default:
-                                continue;
-                        }
-
-                        // Add lab to cell
-                        String cellContent = course.courseCode + " (Lab)\n" + course.labSection;
-                        model.setValueAt(cellContent, labRowIndex, colIndex);
-                    }
-                }
-            }
-        }
-
         add(new JScrollPane(timetableTable), BorderLayout.CENTER);
 
         JButton backBtn = new JButton("Back to Dashboard");
@@ -1019,9 +1245,11 @@ class InstructorAddCoursePage extends JFrame {
 
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton suggestBtn = new JButton("Suggest Slot");
         JButton confirmBtn = new JButton("Confirm");
         JButton cancelBtn = new JButton("Cancel");
 
+        buttonPanel.add(suggestBtn);
         buttonPanel.add(confirmBtn);
         buttonPanel.add(cancelBtn);
 
@@ -1070,6 +1298,42 @@ class InstructorAddCoursePage extends JFrame {
             }
         });
 
+        // Let the solver pick a lecture (and lab) slot that fits around the instructor's courses
+        suggestBtn.addActionListener(e -> {
+            String instructorName = instructorNameField.getText().trim();
+            boolean hasLab = !((String) labSectionDropdown.getSelectedItem()).isEmpty();
+            Course candidate = new Course(courseIdField.getText().trim(), courseNameField.getText().trim(),
+                    (String) lectureSectionDropdown.getSelectedItem(),
+                    (String) labSectionDropdown.getSelectedItem(), hasLab, 0, "", "", "", "", instructorName);
+
+            TimetableSolver solver = new TimetableSolver();
+            solver.schedule(List.of(candidate));
+            solver.pin(InstructorDashboard.myCourses);
+            solver.pin(CourseRepository.findByInstructor(instructorName));
+            TimetableSolver.Result result = solver.solve();
+            if (!result.isSolved()) {
+                JOptionPane.showMessageDialog(this,
+                        "No free slot is left for " + instructorName + ".",
+                        "No Slot Available", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
+            TimetableSolver.Slot lecture = result.lectures.get(candidate);
+            mwfPattern.setSelected(lecture.days.equals("MWF"));
+            tthPattern.setSelected(lecture.days.equals("TTh"));
+            lectureTimeDropdown.setSelectedItem(lecture.time);
+
+            TimetableSolver.Slot lab = result.labs.get(candidate);
+            if (lab != null) {
+                monLab.setSelected(lab.days.equals("M"));
+                tueLab.setSelected(lab.days.equals("T"));
+                wedLab.setSelected(lab.days.equals("W"));
+                thuLab.setSelected(lab.days.equals("Th"));
+                friLab.setSelected(lab.days.equals("F"));
+                labTimeDropdown.setSelectedItem(lab.time);
+            }
+        });
+
         // Confirm button action
         confirmBtn.addActionListener(e -> {
             // Get course info
@@ -1167,6 +1431,17 @@ class InstructorAddCoursePage extends JFrame {
                 }
             }
 
+            // The instructor may also teach catalog courses that are not in their own list
+            if (!conflict) {
+                for (Course existingCourse : CourseRepository.findConflicts(newCourse)) {
+                    if (existingCourse.instructorName.equals(instructorName)) {
+                        conflict = true;
+                        conflictingCourse = existingCourse;
+                        break;
+                    }
+                }
+            }
+
             if (conflict) {
                 JOptionPane.showMessageDialog(this,
                         "Time conflict detected with existing course: " +
@@ -1194,6 +1469,8 @@ class InstructorAddCoursePage extends JFrame {
 
 class UpdateCourseStatusPage extends JFrame {
     private Course currentCourse;
+    // "Yes" button of each facility question, by group name
+    private final Map<String, JRadioButton> facilityAnswers = new HashMap<>();
 
     public UpdateCourseStatusPage(Course course) {
         this.currentCourse = course;
@@ -1231,12 +1508,14 @@ class UpdateCourseStatusPage extends JFrame {
             panel.add(Box.createVerticalStrut(10));
         }
 
-        // Exam Section
-        panel.add(createRow("Midsem Exam Date", new JTextField("03/03/25"),
-                "Midsem Exam Time", new JTextField("9:30-11 am")));
+        // Exam Section, filled in from the last exam schedule when it has the course
+        ExamScheduler.Plan midsem = ExamScheduler.latest(ExamScheduler.Exam.MIDSEM);
+        ExamScheduler.Plan compre = ExamScheduler.latest(ExamScheduler.Exam.COMPREHENSIVE);
+        panel.add(createRow("Midsem Exam Date", new JTextField(examField(midsem, true, "03/03/25")),
+                "Midsem Exam Time", new JTextField(examField(midsem, false, "9:30-11 am"))));
 
-        panel.add(createRow("Comprehensive Exam Date", new JTextField("02/05/25"),
-                "Comprehensive Exam Time", new JTextField("2 - 5 pm")));
+        panel.add(createRow("Comprehensive Exam Date", new JTextField(examField(compre, true, "02/05/25")),
+                "Comprehensive Exam Time", new JTextField(examField(compre, false, "2 - 5 pm"))));
 
         // Lecture Hall & Lab Capacity + Requirements
         JPanel facilitiesPanel = new JPanel(new GridLayout(1, 2, 20, 10));
@@ -1277,10 +1556,38 @@ class UpdateCourseStatusPage extends JFrame {
         declineBtn.setForeground(Color.WHITE);
 
         approveBtn.addActionListener(e -> {
-            // Remove course from pending courses
+            // Seats and rooms follow the section in the catalog, which may have a lab where the
+            // request did not (or the other way round); the lab capacity only counts if it does
+            Course section = null;
             if (currentCourse != null) {
-                AdminDashboard.pendingCourses.removeIf(c -> c.courseCode.equals(currentCourse.courseCode) &&
-                        c.courseName.equals(currentCourse.courseName));
+                section = CourseRepository.findSection(currentCourse.courseCode, currentCourse.lectureSection);
+                if (section == null) {
+                    section = currentCourse;
+                }
+            }
+            boolean hasLab = section == null || section.hasLab;
+            int lectureSeats = parseCapacity(lecCapacity.getText());
+            int labSeats = hasLab ? parseCapacity(labCapacity.getText()) : SeatInventory.UNLIMITED;
+            if (lectureSeats <= 0 || labSeats <= 0) {
+                JOptionPane.showMessageDialog(this,
+                        hasLab ? "Capacities must be positive numbers." : "Lecture capacity must be a positive number.",
+                        "Invalid Capacity", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            // Remove course from pending courses, open its seats for enrollment and record
+            // what its rooms need
+            if (section != null) {
+                AdminDashboard.removePendingCourse(currentCourse);
+                EnrollmentStore.shared().seats().setCapacity(section, lectureSeats, labSeats);
+                RoomAllocator.require(section, false, lectureSeats,
+                        (isRequired("lectureImpartus") ? RoomAllocator.IMPARTUS : 0)
+                                | (isRequired("lectureProjector") ? RoomAllocator.PROJECTOR : 0));
+                if (hasLab) {
+                    RoomAllocator.require(section, true, labSeats,
+                            (isRequired("labMic") ? RoomAllocator.MICROPHONE : 0)
+                                    | (isRequired("labProjector") ? RoomAllocator.PROJECTOR : 0));
+                }
+                RoomAllocator.invalidate();
             }
             JOptionPane.showMessageDialog(this, "Course Approved");
             dispose();
@@ -1290,8 +1597,7 @@ class UpdateCourseStatusPage extends JFrame {
         declineBtn.addActionListener(e -> {
             // Remove course from pending courses
             if (currentCourse != null) {
-                AdminDashboard.pendingCourses.removeIf(c -> c.courseCode.equals(currentCourse.courseCode) &&
-                        c.courseName.equals(currentCourse.courseName));
+                AdminDashboard.removePendingCourse(currentCourse);
             }
             JOptionPane.showMessageDialog(this, "Course Declined");
             dispose();
@@ -1359,14 +1665,40 @@ class UpdateCourseStatusPage extends JFrame {
         panel.add(lbl);
         panel.add(yesBtn);
         panel.add(noBtn);
+        facilityAnswers.put(groupName, yesBtn);
         return panel;
     }
+
+    private String examField(ExamScheduler.Plan plan, boolean date, String fallback) {
+        if (plan == null || currentCourse == null) {
+            return fallback;
+        }
+        String value = date ? plan.date(currentCourse.courseCode) : plan.time(currentCourse.courseCode);
+        return value != null ? value : fallback;
+    }
+
+    private boolean isRequired(String groupName) {
+        JRadioButton yes = facilityAnswers.get(groupName);
+        return yes != null && yes.isSelected();
+    }
+
+    // The number typed into a capacity field, or -1 if it is not a number
+    private static int parseCapacity(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
 }
 
 class AdminViewCoursePage extends JFrame {
     private JPanel labSectionContainer;
     private JTextField labSectionCountField;
     private Course currentCourse;
+    private LabSectionPlanner labPlanner;
+    // One row per planned lab section, kept while the count changes
+    private final List<JPanel> labRows = new ArrayList<>();
 
     public AdminViewCoursePage() {
         this(AdminDashboard.pendingCourses.isEmpty() ? null : AdminDashboard.pendingCourses.get(0));
@@ -1407,10 +1739,13 @@ class AdminViewCoursePage extends JFrame {
 
         panel.add(createRow("Course ID:", new JTextField(courseId), "Course Title:", new JTextField(courseTitle)));
         panel.add(createRow("Number of lecture sections:", new JTextField("1")));
-        panel.add(createRow("Lecture Section:", new JTextField("L1"),
-                "Instructor:", new JTextField("Abhijit Das"),
-                "Days:", new JTextField("MoWeFr"),
-                "Time:", new JTextField("9:00 - 9:50 am")));
+        Course lecture = currentCourse != null ? currentCourse
+                : new Course(courseId, courseTitle, "L1", "P1", true, 3);
+        panel.add(createRow("Lecture Section:", new JTextField(lecture.lectureSection),
+                "Instructor:", new JTextField(lecture.instructorName),
+                "Days:", new JTextField(lecture.lectureDays),
+                "Time:", new JTextField(lecture.lectureTime)));
+        labPlanner = new LabSectionPlanner(lecture, LabSectionPlanner.instructorsFor(lecture));
 
         ButtonGroup labGroup = new ButtonGroup();
         JButton backButton = new JButton("Back");
@@ -1476,21 +1811,30 @@ class AdminViewCoursePage extends JFrame {
         return row;
     }
 
+    // Add or remove rows for the sections that changed; existing rows are left alone
     private void generateLabSections() {
-        labSectionContainer.removeAll();
         int count;
         try {
-            count = Integer.parseInt(labSectionCountField.getText().trim());
+            count = Math.min(Integer.parseInt(labSectionCountField.getText().trim()), LabSectionPlanner.MAX_SECTIONS);
         } catch (NumberFormatException e) {
             count = 0;
         }
+        if (count == labRows.size()) {
+            return;
+        }
 
-        for (int i = 1; i <= count; i++) {
-            labSectionContainer.add(
-                    createRow("Lab Section:", new JTextField("P" + i),
-                            "Instructor:", new JTextField(i == 1 ? "Abhijit Das" : "Panda"),
-                            "Day:", new JTextField(i == 1 ? "Wednesday" : "Tuesday"),
-                            "Time:", new JTextField("3:00 - 4:50 pm")));
+        List<LabSectionPlanner.Section> sections = labPlanner.plan(count);
+        while (labRows.size() > sections.size()) {
+            labSectionContainer.remove(labRows.remove(labRows.size() - 1));
+        }
+        for (int i = labRows.size(); i < sections.size(); i++) {
+            LabSectionPlanner.Section section = sections.get(i);
+            JPanel row = createRow("Lab Section:", new JTextField(section.name),
+                    "Instructor:", new JTextField(section.instructor),
+                    "Day:", new JTextField(section.day),
+                    "Time:", new JTextField(section.time));
+            labRows.add(row);
+            labSectionContainer.add(row);
         }
         labSectionContainer.revalidate();
         labSectionContainer.repaint();
@@ -1498,10 +1842,19 @@ class AdminViewCoursePage extends JFrame {
 }
 
 class AdminDashboard extends JFrame {
+    private static final String SEARCH_HINT = "Search by Name, Department or ID";
+
     // Add static list to store pending courses
     public static List<Course> pendingCourses = new ArrayList<>(List.of(
             new Course("CS F213", "Object Oriented Programming", "L1", "P1", true, 3)));
 
+    // Remove a section from the pending list once it has been approved or declined; other
+    // sections of the same course stay pending
+    public static void removePendingCourse(Course course) {
+        String key = course.sectionKey();
+        pendingCourses.removeIf(c -> c.sectionKey().equals(key) && c.courseName.equals(course.courseName));
+    }
+
     public AdminDashboard() {
         setTitle("Admin Dashboard");
         setSize(900, 600);
@@ -1522,19 +1875,81 @@ class AdminDashboard extends JFrame {
     private JPanel getCSVImportPanel() {
         JPanel panel = new JPanel();
         panel.setBorder(BorderFactory.createTitledBorder("Import Data from CSV"));
-        panel.setLayout(new GridLayout(1, 2, 10, 10));
+        panel.setLayout(new GridLayout(1, 4, 10, 10));
 
         JButton importCoursesBtn = new JButton("Import Courses");
+        JButton saveSnapshotBtn = new JButton("Save Snapshot");
+        JButton scheduleExamsBtn = new JButton("Schedule Exams");
 
         // Add action listener for import button
         importCoursesBtn.addActionListener(e -> importCoursesFromCSV());
+        saveSnapshotBtn.addActionListener(e -> saveSnapshot());
+        scheduleExamsBtn.addActionListener(e -> scheduleExams());
 
         panel.add(new JLabel("Courses:"));
         panel.add(importCoursesBtn);
+        panel.add(saveSnapshotBtn);
+        panel.add(scheduleExamsBtn);
 
         return panel;
     }
 
+    private void saveSnapshot() {
+        try {
+            CourseSnapshot.write(CourseSnapshot.DEFAULT_FILE, CourseRepository.courses(),
+                    CourseSnapshot.configuredCatalog());
+            JOptionPane.showMessageDialog(this,
+                    CourseRepository.size() + " courses saved to " + CourseSnapshot.DEFAULT_FILE,
+                    "Snapshot Saved", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this,
+                    "Error saving snapshot: " + ex.getMessage(),
+                    "Snapshot Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Midsem and comprehensive slots for every course from the current enrollments, in the
+    // exam windows the admin enters (prefilled with the last or configured ones)
+    private void scheduleExams() {
+        ExamScheduler.Exam[] exams = ExamScheduler.Exam.values();
+        JTextField[] startFields = new JTextField[exams.length];
+        JTextField[] dayFields = new JTextField[exams.length];
+        JPanel form = new JPanel(new GridLayout(0, 2, 10, 10));
+        for (int i = 0; i < exams.length; i++) {
+            ExamScheduler.Window window;
+            try {
+                window = ExamScheduler.configuredWindow(exams[i]);
+            } catch (IllegalArgumentException ex) {
+                window = null;
+            }
+            startFields[i] = new JTextField(window != null ? window.start() : "");
+            dayFields[i] = new JTextField(String.valueOf(window != null ? window.days : exams[i].defaultDays));
+            form.add(new JLabel(exams[i].label + " start (dd/mm/yy)"));
+            form.add(startFields[i]);
+            form.add(new JLabel(exams[i].label + " exam days"));
+            form.add(dayFields[i]);
+        }
+        if (JOptionPane.showConfirmDialog(this, form, "Exam Windows", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        ExamScheduler.Window[] windows = new ExamScheduler.Window[exams.length];
+        for (int i = 0; i < exams.length; i++) {
+            try {
+                windows[i] = ExamScheduler.Window.parse(startFields[i].getText(), dayFields[i].getText());
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, exams[i].label + ": " + ex.getMessage(),
+                        "Invalid Exam Window", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < exams.length; i++) {
+            summary.append(ExamScheduler.scheduleCurrent(exams[i], windows[i]).summary()).append("\n");
+        }
+        JOptionPane.showMessageDialog(this, summary.toString(), "Exam Schedule", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     private void importCoursesFromCSV() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Select Course CSV File");
@@ -1543,69 +1958,49 @@ class AdminDashboard extends JFrame {
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
-            try {
-                int importedCount = parseCoursesFromCSV(selectedFile);
-                JOptionPane.showMessageDialog(this,
-                        importedCount + " courses imported successfully!",
-                        "Import Successful", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this,
-                        "Error importing courses: " + ex.getMessage(),
-                        "Import Error", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
-            }
-        }
-    }
-
-    private int parseCoursesFromCSV(File csvFile) throws IOException, CsvValidationException {
-        int count = 0;
-
-        try (CSVReader reader = new CSVReader(new FileReader(csvFile))) {
-            // Skip header line
-            String[] header = reader.readNext();
-            if (header == null) {
-                throw new IOException("CSV file is empty");
-            }
 
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                // Expected format:
-                // code,name,lectureSection,labSection,hasLab,lectures,lectureDays,lectureTime,labDays,labTime,instructorName
-                if (line.length >= 6) {
-                    String code = line[0];
-                    String name = line[1];
-                    String lectureSection = line[2];
-                    String labSection = line[3];
-                    boolean hasLab = Boolean.parseBoolean(line[4]);
-                    int lectures = Integer.parseInt(line[5]);
-
-                    Course course;
-
-                    if (line.length >= 9) {
-                        String lectureDays = line[6];
-                        String lectureTime = line[7];
-                        String instructorName = line[8];
-
-                        if (line.length >= 11 && hasLab) {
-                            String labDays = line[9];
-                            String labTime = line[10];
-                            course = new Course(code, name, lectureSection, labSection, hasLab, lectures,
-                                    lectureDays, lectureTime, labDays, labTime, instructorName);
-                        } else {
-                            course = new Course(code, name, lectureSection, labSection, hasLab, lectures,
-                                    lectureDays, lectureTime, instructorName);
-                        }
-                    } else {
-                        course = new Course(code, name, lectureSection, labSection, hasLab, lectures);
+            // Parse on a background worker; chunks are committed on the event thread
+            CourseImportWorker worker = new CourseImportWorker(selectedFile);
+            ProgressMonitor monitor = new ProgressMonitor(this,
+                    "Importing " + selectedFile.getName(), "", 0, 100);
+            monitor.setMillisToDecideToPopup(200);
+
+            worker.addPropertyChangeListener(evt -> {
+                if ("progress".equals(evt.getPropertyName())) {
+                    monitor.setProgress((Integer) evt.getNewValue());
+                    monitor.setNote(worker.getImportedCount() + " courses imported");
+                    if (monitor.isCanceled()) {
+                        worker.cancel(false);
                     }
-
-                    // Add to course repository
-                    CourseRepository.addCourse(course);
-                    count++;
+                } else if ("state".equals(evt.getPropertyName())
+                        && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                    monitor.close();
+                    showImportResult(worker);
                 }
-            }
+            });
+            worker.execute();
+        }
+    }
+
+    private void showImportResult(CourseImportWorker worker) {
+        if (worker.isCancelled()) {
+            JOptionPane.showMessageDialog(this,
+                    "Import cancelled. " + worker.getImportedCount() + " courses were imported.",
+                    "Import Cancelled", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        try {
+            int importedCount = worker.get();
+            JOptionPane.showMessageDialog(this,
+                    importedCount + " courses imported successfully!",
+                    "Import Successful", JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception ex) {
+            Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+            JOptionPane.showMessageDialog(this,
+                    "Error importing courses: " + cause.getMessage(),
+                    "Import Error", JOptionPane.ERROR_MESSAGE);
+            cause.printStackTrace();
         }
-        return count;
     }
 
     private JPanel getHeaderPanel() {
@@ -1647,19 +2042,23 @@ class AdminDashboard extends JFrame {
         JLabel approvedLabel = new JLabel("Courses Approved");
         JLabel declinedLabel = new JLabel("Courses Declined");
         JLabel pendingLabel = new JLabel("Courses Pending");
+        JLabel clashesLabel = new JLabel("Clashing Course Pairs");
 
         JLabel approvedCount = new JLabel("35");
         JLabel declinedCount = new JLabel("3");
         // Update pending count dynamically
         JLabel pendingCount = new JLabel(String.valueOf(pendingCourses.size()));
+        JLabel clashesCount = new JLabel(String.valueOf(ConflictGraph.shared().edgeCount()));
 
         approvedCount.setFont(new Font("Arial", Font.BOLD, 24));
         declinedCount.setFont(new Font("Arial", Font.BOLD, 24));
         pendingCount.setFont(new Font("Arial", Font.BOLD, 24));
+        clashesCount.setFont(new Font("Arial", Font.BOLD, 24));
 
         leftPanel.add(createStatPanel(approvedLabel, approvedCount));
         leftPanel.add(createStatPanel(declinedLabel, declinedCount));
         leftPanel.add(createStatPanel(pendingLabel, pendingCount));
+        leftPanel.add(createStatPanel(clashesLabel, clashesCount));
 
         JPanel pendingCoursesPanel = new JPanel(new BorderLayout());
         pendingCoursesPanel.setBorder(BorderFactory.createTitledBorder("Pending Courses"));
@@ -1689,25 +2088,37 @@ class AdminDashboard extends JFrame {
         JPanel rightPanel = new JPanel(new BorderLayout());
         rightPanel.setBorder(BorderFactory.createTitledBorder("All Courses"));
 
-        JTextField searchBar = new JTextField("Search by Name, Department or ID");
+        JTextField searchBar = new JTextField(SEARCH_HINT);
         JPanel courseListPanel = new JPanel(new GridLayout(0, 1, 5, 5));
         courseListPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        String[] courses = {
-                "Machine Learning", "Operating Systems",
-                "Foundations of Data Structure and Algorithms",
-                "Database Management Systems"
-        };
+        // Clear the hint when the admin starts typing
+        searchBar.addFocusListener(new FocusAdapter() {
+            public void focusGained(FocusEvent e) {
+                if (searchBar.getText().equals(SEARCH_HINT)) {
+                    searchBar.setText("");
+                }
+            }
+        });
 
-        for (String course : courses) {
-            JButton btn = new JButton(course);
-            btn.setFocusPainted(false);
-            btn.setBackground(Color.WHITE);
-            courseListPanel.add(btn);
-        }
+        // Search the catalog on every keystroke
+        searchBar.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                showSearchResults(courseListPanel, searchBar.getText());
+            }
+
+            public void removeUpdate(DocumentEvent e) {
+                showSearchResults(courseListPanel, searchBar.getText());
+            }
+
+            public void changedUpdate(DocumentEvent e) {
+                showSearchResults(courseListPanel, searchBar.getText());
+            }
+        });
+        showSearchResults(courseListPanel, "");
 
         rightPanel.add(searchBar, BorderLayout.NORTH);
-        rightPanel.add(courseListPanel, BorderLayout.CENTER);
+        rightPanel.add(new JScrollPane(courseListPanel), BorderLayout.CENTER);
 
         panel.add(leftPanel, BorderLayout.WEST);
         panel.add(rightPanel, BorderLayout.CENTER);
@@ -1715,6 +2126,31 @@ class AdminDashboard extends JFrame {
         return panel;
     }
 
+    // List the best matches for the query, or the first courses when there is none
+    private void showSearchResults(JPanel courseListPanel, String query) {
+        List<Course> results;
+        if (query.isBlank() || query.equals(SEARCH_HINT)) {
+            List<Course> all = CourseRepository.courses();
+            results = all.subList(0, Math.min(CourseSearchIndex.DEFAULT_LIMIT, all.size()));
+        } else {
+            results = CourseSearchIndex.shared().search(query);
+        }
+
+        courseListPanel.removeAll();
+        if (results.isEmpty()) {
+            courseListPanel.add(new JLabel("No courses found"));
+        }
+        for (Course course : results) {
+            JButton btn = new JButton(course.courseCode + " - " + course.courseName + " (" + course.lectureSection + ")");
+            btn.setFocusPainted(false);
+            btn.setBackground(Color.WHITE);
+            btn.addActionListener(e -> new ViewCoursePage(course, "Admin"));
+            courseListPanel.add(btn);
+        }
+        courseListPanel.revalidate();
+        courseListPanel.repaint();
+    }
+
     private JPanel createStatPanel(JLabel label, JLabel count) {
         JPanel statPanel = new JPanel(new BorderLayout());
         statPanel.setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
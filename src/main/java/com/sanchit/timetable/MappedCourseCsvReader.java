@@ -0,0 +1,274 @@
+package com.sanchit.timetable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Reads a course CSV through a memory-mapped view of the file instead of a Reader.
+// Fields are tokenized as offsets into the mapping; only the fields a Course keeps are
+// turned into Strings, hasLab and the lecture count are parsed straight from the bytes,
+// and low-cardinality fields (sections, days, times, instructors) are deduplicated so
+// repeated values share one String. Quoting follows RFC 4180 ("" inside quotes).
+class MappedCourseCsvReader {
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int MAX_FIELDS = 11;
+
+    private final Charset charset;
+    private final BytePool pool = new BytePool(1 << 16);
+    // Field offsets of the current record, relative to the window
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private final boolean[] fieldEscaped = new boolean[MAX_FIELDS];
+    private int fieldCount;
+    private byte[] scratch = new byte[256];
+
+    MappedCourseCsvReader() {
+        this(Charset.defaultCharset());
+    }
+
+    MappedCourseCsvReader(Charset charset) {
+        this.charset = charset;
+    }
+
+    // Stream the file to the handler in chunks of at most chunkSize courses.
+    // Returns the number of courses parsed.
+    int stream(File csvFile, int chunkSize, CourseCsvImporter.ChunkHandler handler) throws Exception {
+        try (FileChannel channel = FileChannel.open(csvFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IOException("CSV file is empty");
+            }
+            List<Course> chunk = new ArrayList<>(chunkSize);
+            int count = 0;
+            boolean header = true;
+            long windowStart = 0;
+            while (windowStart < size) {
+                long windowLength = Math.min(WINDOW_SIZE, size - windowStart);
+                boolean lastWindow = windowStart + windowLength == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+                int limit = (int) windowLength;
+                int position = 0;
+                while (position < limit) {
+                    int next = tokenize(window, position, limit, lastWindow);
+                    if (next < 0) {
+                        // Record continues past this window, map again from its start
+                        if (position == 0) {
+                            throw new IOException("CSV record larger than the mapping window");
+                        }
+                        break;
+                    }
+                    position = next;
+                    if (header) {
+                        header = false;
+                        continue;
+                    }
+                    Course course = toCourse(window);
+                    if (course == null) {
+                        continue;
+                    }
+                    chunk.add(course);
+                    count++;
+                    if (chunk.size() == chunkSize) {
+                        if (!handler.accept(chunk, windowStart + position)) {
+                            return count;
+                        }
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                windowStart += position;
+            }
+            if (!chunk.isEmpty()) {
+                handler.accept(chunk, size);
+            }
+            return count;
+        }
+    }
+
+    // Split one record starting at position into fields. Returns the position after the
+    // record, or -1 if the record is cut off by the end of a window that is not the last.
+    private int tokenize(MappedByteBuffer buffer, int position, int limit, boolean lastWindow) {
+        fieldCount = 0;
+        int i = position;
+        while (true) {
+            boolean quoted = i < limit && buffer.get(i) == '"';
+            boolean escaped = false;
+            int start, end;
+            if (quoted) {
+                start = ++i;
+                while (true) {
+                    if (i >= limit) {
+                        if (!lastWindow) {
+                            return -1;
+                        }
+                        end = i;
+                        break;
+                    }
+                    if (buffer.get(i) == '"') {
+                        if (i + 1 < limit && buffer.get(i + 1) == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        if (i + 1 >= limit && !lastWindow) {
+                            return -1;
+                        }
+                        end = i++;
+                        break;
+                    }
+                    i++;
+                }
+                // Skip anything between the closing quote and the separator
+                while (i < limit && buffer.get(i) != ',' && buffer.get(i) != '\n') {
+                    i++;
+                }
+            } else {
+                start = i;
+                while (i < limit && buffer.get(i) != ',' && buffer.get(i) != '\n') {
+                    i++;
+                }
+                end = i;
+                if (end > start && buffer.get(end - 1) == '\r') {
+                    end--;
+                }
+            }
+            if (fieldCount < MAX_FIELDS) {
+                fieldStart[fieldCount] = start;
+                fieldEnd[fieldCount] = end;
+                fieldEscaped[fieldCount] = escaped;
+            }
+            fieldCount++;
+
+            if (i >= limit) {
+                return lastWindow ? limit : -1;
+            }
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+            i++; // separator
+        }
+    }
+
+    private Course toCourse(MappedByteBuffer buffer) {
+        if (fieldCount < 6) {
+            return null;
+        }
+        String code = string(buffer, 0, false);
+        String name = string(buffer, 1, false);
+        String lectureSection = string(buffer, 2, true);
+        String labSection = string(buffer, 3, true);
+        boolean hasLab = parseBoolean(buffer, 4);
+        int lectures = parseInt(buffer, 5);
+
+        if (fieldCount >= 11) {
+            return new Course(code, name, lectureSection, labSection, hasLab, lectures,
+                    string(buffer, 6, true), string(buffer, 7, true),
+                    string(buffer, 8, true), string(buffer, 9, true), string(buffer, 10, true));
+        }
+        if (fieldCount >= 9) {
+            return new Course(code, name, lectureSection, labSection, hasLab, lectures,
+                    string(buffer, 6, true), string(buffer, 7, true), string(buffer, 8, true));
+        }
+        return new Course(code, name, lectureSection, labSection, hasLab, lectures);
+    }
+
+    // Copy a field's bytes (with "" unescaped) into the scratch buffer, returns the length
+    private int copyField(MappedByteBuffer buffer, int field) {
+        int start = fieldStart[field], end = fieldEnd[field];
+        if (scratch.length < end - start) {
+            scratch = new byte[Math.max(end - start, scratch.length * 2)];
+        }
+        if (!fieldEscaped[field]) {
+            buffer.get(start, scratch, 0, end - start);
+            return end - start;
+        }
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            scratch[length++] = b;
+            if (b == '"') {
+                i++; // skip the second quote of ""
+            }
+        }
+        return length;
+    }
+
+    private String string(MappedByteBuffer buffer, int field, boolean shared) {
+        int length = copyField(buffer, field);
+        if (!shared) {
+            return new String(scratch, 0, length, charset);
+        }
+        return pool.intern(scratch, length, charset);
+    }
+
+    private boolean parseBoolean(MappedByteBuffer buffer, int field) {
+        int length = copyField(buffer, field);
+        return length == 4
+                && (scratch[0] | 0x20) == 't' && (scratch[1] | 0x20) == 'r'
+                && (scratch[2] | 0x20) == 'u' && (scratch[3] | 0x20) == 'e';
+    }
+
+    private int parseInt(MappedByteBuffer buffer, int field) {
+        int length = copyField(buffer, field);
+        int i = 0;
+        boolean signed = length > 0 && (scratch[0] == '-' || scratch[0] == '+');
+        if (signed) {
+            i++;
+        }
+        if (i == length) {
+            throw new NumberFormatException("For input string: \"" + new String(scratch, 0, length, charset) + "\"");
+        }
+        int value = 0;
+        for (; i < length; i++) {
+            int digit = scratch[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(
+                        "For input string: \"" + new String(scratch, 0, length, charset) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return scratch[0] == '-' ? -value : value;
+    }
+
+    // Open-addressing table from byte content to a shared String. Lookups of values that
+    // are already present do not allocate. Once full, new values are no longer pooled.
+    private static class BytePool {
+        private final byte[][] keys;
+        private final String[] values;
+        private final int mask;
+        private int size;
+
+        BytePool(int capacity) {
+            keys = new byte[capacity][];
+            values = new String[capacity];
+            mask = capacity - 1;
+        }
+
+        String intern(byte[] bytes, int length, Charset charset) {
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != null) {
+                if (Arrays.equals(keys[slot], 0, keys[slot].length, bytes, 0, length)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            String value = new String(bytes, 0, length, charset);
+            // Keep the table at most half full so probes stay short
+            if (size < keys.length / 2) {
+                keys[slot] = Arrays.copyOf(bytes, length);
+                values[slot] = value;
+                size++;
+            }
+            return value;
+        }
+    }
+}
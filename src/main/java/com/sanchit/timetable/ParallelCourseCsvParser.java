@@ -0,0 +1,184 @@
+package com.sanchit.timetable;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.opencsv.CSVReader;
+
+// Parses very large course CSV files on a ForkJoinPool.
+//
+// The file is cut into equal byte ranges. A first parallel pass counts the quotes in each
+// range and remembers the first newline seen with an even and with an odd number of quotes
+// before it. Folding the quote parities from the start of the file tells whether each range
+// starts inside a quoted field, so every range can be moved to a real record boundary even
+// when fields contain newlines. The pieces are then parsed concurrently, with a bounded
+// number in flight, and handed to the caller in file order in chunks of the requested size.
+class ParallelCourseCsvParser {
+    static final int DEFAULT_PIECE_SIZE = 8 * 1024 * 1024;
+    private static final int SCAN_BUFFER_SIZE = 256 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int pieceSize;
+
+    ParallelCourseCsvParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PIECE_SIZE);
+    }
+
+    ParallelCourseCsvParser(ForkJoinPool pool, int pieceSize) {
+        this.pool = pool;
+        this.pieceSize = pieceSize;
+    }
+
+    // Parse the file and hand its courses to the handler in file order, in chunks of at most
+    // chunkSize courses, like the other readers. Returns the number of courses parsed.
+    int stream(File csvFile, int chunkSize, CourseCsvImporter.ChunkHandler handler) throws Exception {
+        try (FileChannel channel = FileChannel.open(csvFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IOException("CSV file is empty");
+            }
+            long[] boundaries = findRecordBoundaries(channel, size);
+
+            // Keep a window of pieces parsing ahead of the one being delivered
+            int window = Math.max(2, pool.getParallelism() * 2);
+            ArrayDeque<ForkJoinTask<List<Course>>> inFlight = new ArrayDeque<>();
+            int next = 0, delivered = 0, count = 0;
+            try {
+                pieces:
+                while (delivered < boundaries.length - 1) {
+                    while (next < boundaries.length - 1 && inFlight.size() < window) {
+                        long from = boundaries[next], to = boundaries[next + 1];
+                        boolean skipHeader = next == 0;
+                        inFlight.add(pool.submit(() -> parsePiece(channel, from, to, skipHeader)));
+                        next++;
+                    }
+                    List<Course> piece = join(inFlight.poll());
+                    long pieceStart = boundaries[delivered], pieceEnd = boundaries[++delivered];
+                    // Progress moves through the piece in proportion to the courses handed over
+                    for (int from = 0; from < piece.size(); from += chunkSize) {
+                        int to = Math.min(piece.size(), from + chunkSize);
+                        count += to - from;
+                        long bytesRead = pieceStart + (pieceEnd - pieceStart) * to / piece.size();
+                        if (!handler.accept(new ArrayList<>(piece.subList(from, to)), bytesRead)) {
+                            break pieces;
+                        }
+                    }
+                }
+            } finally {
+                for (ForkJoinTask<List<Course>> task : inFlight) {
+                    task.cancel(false);
+                }
+            }
+            return count;
+        }
+    }
+
+    // Start offsets of each piece, followed by the file size
+    private long[] findRecordBoundaries(FileChannel channel, long size) throws Exception {
+        int ranges = (int) Math.max(1, (size + pieceSize - 1) / pieceSize);
+        List<ForkJoinTask<long[]>> scans = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges; i++) {
+            long from = (long) i * pieceSize, to = Math.min(size, from + pieceSize);
+            scans.add(pool.submit(() -> scanRange(channel, from, to)));
+        }
+
+        long[] boundaries = new long[ranges + 1];
+        int count = 0;
+        boundaries[count++] = 0;
+        boolean insideQuotes = false;
+        for (int i = 0; i < ranges; i++) {
+            long[] scan = join(scans.get(i));
+            if (i > 0) {
+                long newline = insideQuotes ? scan[2] : scan[1];
+                // No record ends in this range, it belongs to the previous piece
+                if (newline >= 0 && newline + 1 < size) {
+                    boundaries[count++] = newline + 1;
+                }
+            }
+            insideQuotes ^= scan[0] == 1;
+        }
+        boundaries[count++] = size;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    // Returns {quote parity, first newline after an even number of quotes,
+    // first newline after an odd number of quotes}, -1 when there is none
+    private static long[] scanRange(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long evenNewline = -1, oddNewline = -1;
+        int parity = 0;
+        long position = from;
+        while (position < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                byte b = bytes[i];
+                if (b == '"') {
+                    parity ^= 1;
+                } else if (b == '\n') {
+                    if (parity == 0 && evenNewline < 0) {
+                        evenNewline = position + i;
+                    } else if (parity == 1 && oddNewline < 0) {
+                        oddNewline = position + i;
+                    }
+                }
+            }
+            position += read;
+        }
+        return new long[] { parity, evenNewline, oddNewline };
+    }
+
+    private static List<Course> parsePiece(FileChannel channel, long from, long to, boolean skipHeader)
+            throws Exception {
+        byte[] bytes = new byte[(int) (to - from)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+
+        List<Course> courses = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new InputStreamReader(new ByteArrayInputStream(bytes)))) {
+            if (skipHeader) {
+                reader.readNext();
+            }
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                Course course = CourseCsvImporter.parseRow(line);
+                if (course != null) {
+                    courses.add(course);
+                }
+            }
+        }
+        return courses;
+    }
+
+    private static <T> T join(ForkJoinTask<T> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
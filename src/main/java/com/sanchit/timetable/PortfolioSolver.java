@@ -0,0 +1,138 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+// Runs several differently seeded copies of a TimetableSolver at once on a ForkJoinPool.
+//
+// Searches run in rounds of a fixed number of searches, however many workers the pool has,
+// so a seed names the same set of searches on every machine. Each search in a round gets its
+// own seed, derived from the portfolio seed and its index, and the same backtrack limit; the
+// limit doubles every round so hard instances are eventually searched to completion. As soon
+// as search i solves the problem, every search with a higher index is cancelled, while lower
+// ones keep going until they finish or reach their limit. The lowest index that solves wins,
+// so the same seed always gives the same timetable no matter how the threads were scheduled.
+// A search that proves the problem infeasible ends the whole portfolio.
+class PortfolioSolver {
+    static final long DEFAULT_BACKTRACKS_PER_SEARCH = 20_000;
+    static final int DEFAULT_ROUNDS = 6;
+    static final int DEFAULT_SEARCHES = 8;
+
+    private final TimetableSolver problem;
+    private final ForkJoinPool pool;
+    private int searches = DEFAULT_SEARCHES;
+    private long seed = 1;
+    private long backtracksPerSearch = DEFAULT_BACKTRACKS_PER_SEARCH;
+    private int rounds = DEFAULT_ROUNDS;
+    private BooleanSupplier cancelled = () -> false;
+
+    PortfolioSolver(TimetableSolver problem) {
+        this(problem, ForkJoinPool.commonPool());
+    }
+
+    PortfolioSolver(TimetableSolver problem, ForkJoinPool pool) {
+        this.problem = problem;
+        this.pool = pool;
+    }
+
+    void setSearches(int searches) {
+        this.searches = Math.max(1, searches);
+    }
+
+    void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    void setBacktracksPerSearch(long backtracksPerSearch) {
+        this.backtracksPerSearch = backtracksPerSearch;
+    }
+
+    void setRounds(int rounds) {
+        this.rounds = Math.max(1, rounds);
+    }
+
+    void setCancelled(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    TimetableSolver.Result solve() throws InterruptedException {
+        long limit = backtracksPerSearch;
+        TimetableSolver.Result last = null;
+        for (int round = 0; round < rounds; round++) {
+            last = runRound(round, limit);
+            if (last.status != TimetableSolver.Status.LIMIT_REACHED) {
+                return last;
+            }
+            limit = limit > Long.MAX_VALUE / 2 ? Long.MAX_VALUE : limit * 2;
+        }
+        return last;
+    }
+
+    private TimetableSolver.Result runRound(int round, long limit) throws InterruptedException {
+        // Lowest index that has solved the problem so far, or that proved it infeasible
+        AtomicInteger winner = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicInteger infeasible = new AtomicInteger(Integer.MAX_VALUE);
+
+        List<ForkJoinTask<TimetableSolver.Result>> tasks = new ArrayList<>(searches);
+        for (int i = 0; i < searches; i++) {
+            int index = i;
+            TimetableSolver search = problem.copy();
+            search.setSeed(searchSeed(round * searches + i));
+            search.setMaxBacktracks(limit);
+            search.setCancelled(() -> winner.get() < index || infeasible.get() != Integer.MAX_VALUE
+                    || cancelled.getAsBoolean());
+            tasks.add(pool.submit(() -> {
+                TimetableSolver.Result result = search.solve();
+                if (result.status == TimetableSolver.Status.SOLVED) {
+                    winner.accumulateAndGet(index, Math::min);
+                } else if (result.status == TimetableSolver.Status.INFEASIBLE) {
+                    infeasible.accumulateAndGet(index, Math::min);
+                }
+                return result;
+            }));
+        }
+
+        TimetableSolver.Result[] results = new TimetableSolver.Result[searches];
+        for (int i = 0; i < searches; i++) {
+            try {
+                results[i] = tasks.get(i).get();
+            } catch (ExecutionException e) {
+                for (ForkJoinTask<TimetableSolver.Result> task : tasks) {
+                    task.cancel(false);
+                }
+                throw new IllegalStateException("Timetable search failed", e.getCause());
+            }
+        }
+
+        if (infeasible.get() != Integer.MAX_VALUE) {
+            return results[infeasible.get()];
+        }
+        if (winner.get() != Integer.MAX_VALUE) {
+            return results[winner.get()];
+        }
+        for (TimetableSolver.Result result : results) {
+            if (result.status == TimetableSolver.Status.CANCELLED) {
+                return result;
+            }
+        }
+        return results[0];
+    }
+
+    // Search 0 of the first round uses the portfolio seed itself, the rest are spread out
+    // with a SplitMix64 step so neighbouring indexes get unrelated orders
+    private long searchSeed(int index) {
+        if (index == 0) {
+            return seed;
+        }
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z != 0 ? z : index;
+    }
+}
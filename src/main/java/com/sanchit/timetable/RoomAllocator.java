@@ -0,0 +1,261 @@
+package com.sanchit.timetable;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+// Assigns a room to every lecture and lab of the scheduled courses.
+//
+// Rooms come from an inventory CSV (room,capacity,type,facilities: type is "lecture" or "lab",
+// facilities a ';' separated list of impartus, projector and microphone). Each session (the
+// lectures or the lab of a course, which meet in one room all week) needs a room of the right
+// type with enough seats and every facility it asks for. Requirements are kept per section
+// (course code and lecture section), like seats in the SeatInventory, and so are the rooms
+// handed out, so any Course object of a section finds them. A session without a requirement
+// needs room for the section's seats; a section without a seat limit has no known size and
+// takes the smallest free room of its type. Enrollment counts are not used, so an allocation
+// only changes with the catalog, the capacities and the requirements.
+//
+// Sessions are placed in order of their first meeting, as in greedy interval partitioning,
+// each into the smallest suitable room that is free at all of its meetings; rooms keep their
+// booked time as a WeekOccupancy bitmap, so the check is a few ANDs. Rooms are kept sorted by
+// capacity and the search starts at the first one that is big enough.
+class RoomAllocator {
+    static final int IMPARTUS = 1, PROJECTOR = 2, MICROPHONE = 4;
+    static final String ROOMS_PROPERTY = "timetable.rooms";
+    static final File DEFAULT_FILE = new File(System.getProperty(ROOMS_PROPERTY, "rooms.csv"));
+
+    // What each section asked for on the status page, by Course.sectionKey
+    private static final Map<String, Requirement> lectureNeeds = new ConcurrentHashMap<>();
+    private static final Map<String, Requirement> labNeeds = new ConcurrentHashMap<>();
+
+    private static volatile Allocation latest;
+    private static volatile long latestVersion = -1;
+    private static volatile long latestSeatChanges = -1;
+
+    private final List<Room> rooms;
+
+    static final class Room {
+        final String name;
+        final int capacity;
+        final int facilities;
+        final boolean lab;
+
+        Room(String name, int capacity, int facilities, boolean lab) {
+            this.name = name;
+            this.capacity = capacity;
+            this.facilities = facilities;
+            this.lab = lab;
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+
+    static final class Requirement {
+        final int capacity;
+        final int facilities;
+
+        Requirement(int capacity, int facilities) {
+            this.capacity = capacity;
+            this.facilities = facilities;
+        }
+    }
+
+    // Rooms given to the sessions by Course.sectionKey, and the sessions no room could take
+    static final class Allocation {
+        final Map<String, Room> lectureRooms = new HashMap<>();
+        final Map<String, Room> labRooms = new HashMap<>();
+        final List<String> unassigned = new ArrayList<>();
+
+        Room roomOf(Course course, boolean lab) {
+            return (lab ? labRooms : lectureRooms).get(course.sectionKey());
+        }
+    }
+
+    private static final class Session {
+        final Course course;
+        final boolean lab;
+        final WeekOccupancy occupancy;
+        final int firstStart;
+        final Requirement need;
+
+        Session(Course course, boolean lab, WeekOccupancy occupancy, Requirement need) {
+            this.course = course;
+            this.lab = lab;
+            this.occupancy = occupancy;
+            int[] intervals = occupancy.intervals();
+            // Earliest meeting in week order, as day * minutes per day + start minute
+            this.firstStart = intervals[0] * 24 * 60 + intervals[1];
+            this.need = need;
+        }
+
+        String describe() {
+            return course.courseCode + " " + (lab ? "lab " + course.labSection : "lecture " + course.lectureSection);
+        }
+    }
+
+    RoomAllocator(List<Room> rooms) {
+        this.rooms = new ArrayList<>(rooms);
+        this.rooms.sort(Comparator.comparingInt((Room r) -> r.capacity)
+                .thenComparingInt(r -> Integer.bitCount(r.facilities)));
+    }
+
+    static void require(Course course, boolean lab, int capacity, int facilities) {
+        (lab ? labNeeds : lectureNeeds).put(course.sectionKey(), new Requirement(capacity, facilities));
+    }
+
+    // The allocation for the repository as it is now, recomputed after the catalog or the
+    // seat capacities changed. Null when there is no room inventory file.
+    static Allocation current() {
+        CatalogSnapshot snapshot = CourseRepository.snapshot();
+        long version = snapshot.version();
+        long seatChanges = EnrollmentStore.shared().seats().capacityChanges();
+        if (latestVersion != version || latestSeatChanges != seatChanges) {
+            synchronized (RoomAllocator.class) {
+                if (latestVersion != version || latestSeatChanges != seatChanges) {
+                    try {
+                        latest = DEFAULT_FILE.isFile()
+                                ? new RoomAllocator(readRooms(DEFAULT_FILE)).allocate(snapshot.courses())
+                                : null;
+                    } catch (IOException e) {
+                        System.err.println("Could not read room inventory " + DEFAULT_FILE + ": " + e.getMessage());
+                        latest = null;
+                    }
+                    latestVersion = version;
+                    latestSeatChanges = seatChanges;
+                }
+            }
+        }
+        return latest;
+    }
+
+    // Called after requirements change so the next lookup allocates again
+    static synchronized void invalidate() {
+        latestVersion = -1;
+    }
+
+    Allocation allocate(List<Course> courses) {
+        List<Session> sessions = new ArrayList<>();
+        for (Course course : courses) {
+            addSession(sessions, course, false, course.lectureDays, course.lectureTime);
+            if (course.hasLab) {
+                addSession(sessions, course, true, course.labDays, course.labTime);
+            }
+        }
+        // Earliest first; among sessions starting together the hardest to place first
+        sessions.sort(Comparator.comparingInt((Session s) -> s.firstStart)
+                .thenComparingInt(s -> -s.need.capacity)
+                .thenComparingInt(s -> -Integer.bitCount(s.need.facilities)));
+
+        WeekOccupancy[] booked = new WeekOccupancy[rooms.size()];
+        Arrays.fill(booked, WeekOccupancy.EMPTY);
+        Allocation allocation = new Allocation();
+        for (Session session : sessions) {
+            int first = firstWithCapacity(session.need.capacity);
+            boolean suitable = false;
+            int chosen = -1;
+            for (int i = first; i < rooms.size(); i++) {
+                Room room = rooms.get(i);
+                boolean equipped = (room.facilities & session.need.facilities) == session.need.facilities;
+                if (room.lab != session.lab || !equipped) {
+                    continue;
+                }
+                suitable = true;
+                if (!booked[i].overlaps(session.occupancy)) {
+                    chosen = i;
+                    break;
+                }
+            }
+            if (chosen < 0) {
+                allocation.unassigned.add(session.describe()
+                        + (suitable ? ": every suitable room is taken" : ": no room is big enough or equipped"));
+                continue;
+            }
+            booked[chosen] = booked[chosen].union(session.occupancy);
+            (session.lab ? allocation.labRooms : allocation.lectureRooms).put(session.course.sectionKey(),
+                    rooms.get(chosen));
+        }
+        return allocation;
+    }
+
+    private static void addSession(List<Session> sessions, Course course, boolean lab, String days, String time) {
+        WeekOccupancy occupancy = WeekOccupancy.of(days, time, false, null, null);
+        if (!occupancy.isEmpty()) {
+            Requirement need = (lab ? labNeeds : lectureNeeds).get(course.sectionKey());
+            sessions.add(new Session(course, lab, occupancy, need != null ? need : defaultNeed(course, lab)));
+        }
+    }
+
+    // Room for the section's seats, or any room when it has no limit
+    private static Requirement defaultNeed(Course course, boolean lab) {
+        SeatInventory seats = EnrollmentStore.shared().seats();
+        int capacity = lab ? seats.labCapacity(course) : seats.lectureCapacity(course);
+        return new Requirement(capacity != SeatInventory.UNLIMITED ? capacity : 0, 0);
+    }
+
+    // Index of the first room (in capacity order) with at least the given capacity
+    private int firstWithCapacity(int capacity) {
+        int lo = 0, hi = rooms.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (rooms.get(mid).capacity < capacity) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static List<Room> readRooms(File file) throws IOException {
+        List<Room> rooms = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new FileReader(file))) {
+            if (reader.readNext() == null) {
+                throw new IOException("Room file is empty");
+            }
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 2 || line[0].isBlank()) {
+                    continue;
+                }
+                try {
+                    int capacity = Integer.parseInt(line[1].trim());
+                    boolean lab = line.length > 2 && line[2].trim().equalsIgnoreCase("lab");
+                    rooms.add(new Room(line[0].trim(), capacity, line.length > 3 ? facilities(line[3]) : 0, lab));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad capacity for room " + line[0] + ": " + line[1]);
+                }
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return rooms;
+    }
+
+    private static int facilities(String list) {
+        int mask = 0;
+        for (String name : list.split(";")) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "impartus" -> mask |= IMPARTUS;
+                case "projector" -> mask |= PROJECTOR;
+                case "microphone", "mic" -> mask |= MICROPHONE;
+                default -> {
+                }
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,202 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+// Seats of every section and the students waiting for one.
+//
+// Each section has its own taken counter that only moves by compare-and-set below the
+// capacity, so a seat can never be sold twice and sections never contend with each other.
+// A full section puts students on a FIFO waitlist. A freed seat goes to the head of the
+// waitlist first (through the promoter, which may turn a student down, e.g. because they took
+// a clashing course meanwhile), and newcomers queue behind a waitlist that is not empty.
+// Who is waiting is decided by a concurrent set next to the queue: joining, leaving and being
+// promoted each succeed only for the thread that adds or removes the student there, and a
+// queue entry whose student is no longer in the set is skipped.
+//
+// A section's capacity is the smaller of its lecture hall and lab capacity, since every
+// student takes a seat in both. Sections without a configured capacity are unlimited.
+// Sections are told apart by course code and lecture section rather than by object, so a
+// section keeps its seats when the repository swaps in an updated copy of the course.
+class SeatInventory {
+    static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final ConcurrentHashMap<String, Section> sections = new ConcurrentHashMap<>();
+    // Number of capacity changes so far, so savers can tell whether there is anything new
+    private final AtomicLong capacityChanges = new AtomicLong();
+    // Tries to place a waitlisted student in the section whose seat was just set aside
+    // for them; returns false to pass the seat on to the next student
+    private final BiPredicate<String, Course> promoter;
+
+    private static final class Section {
+        volatile int lectureCapacity = UNLIMITED;
+        volatile int labCapacity = UNLIMITED;
+        final AtomicInteger taken = new AtomicInteger();
+        final ConcurrentLinkedQueue<String> waitlist = new ConcurrentLinkedQueue<>();
+        final Set<String> waiting = ConcurrentHashMap.newKeySet();
+        // Students taken off the waitlist whose promotion has not finished yet
+        final Set<String> promoting = ConcurrentHashMap.newKeySet();
+
+        int capacity() {
+            return Math.min(lectureCapacity, labCapacity);
+        }
+
+        boolean take() {
+            while (true) {
+                int current = taken.get();
+                if (current >= capacity()) {
+                    return false;
+                }
+                if (taken.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    SeatInventory(BiPredicate<String, Course> promoter) {
+        this.promoter = promoter;
+    }
+
+    private Section section(Course course) {
+        return sections.computeIfAbsent(course.sectionKey(), k -> new Section());
+    }
+
+    private Section existing(Course course) {
+        return sections.get(course.sectionKey());
+    }
+
+    // Set the lecture hall and lab capacity of a section. Raising it promotes waitlisted
+    // students; lowering it below the seats taken keeps them but sells no more.
+    void setCapacity(Course course, int lectureCapacity, int labCapacity) {
+        Section section = section(course);
+        section.lectureCapacity = lectureCapacity;
+        section.labCapacity = course.hasLab ? labCapacity : UNLIMITED;
+        capacityChanges.incrementAndGet();
+        promote(section, course);
+    }
+
+    int capacity(Course course) {
+        Section section = existing(course);
+        return section == null ? UNLIMITED : section.capacity();
+    }
+
+    int lectureCapacity(Course course) {
+        Section section = existing(course);
+        return section == null ? UNLIMITED : section.lectureCapacity;
+    }
+
+    int labCapacity(Course course) {
+        Section section = existing(course);
+        return section == null ? UNLIMITED : section.labCapacity;
+    }
+
+    long capacityChanges() {
+        return capacityChanges.get();
+    }
+
+    int taken(Course course) {
+        Section section = existing(course);
+        return section == null ? 0 : section.taken.get();
+    }
+
+    // Take a seat unless the section is full or students are already waiting for one
+    boolean tryReserve(Course course) {
+        Section section = section(course);
+        return section.waitlist.isEmpty() && section.take();
+    }
+
+    // Give back a seat; it goes to the first waitlisted student the promoter accepts
+    void release(Course course) {
+        Section section = section(course);
+        section.taken.decrementAndGet();
+        promote(section, course);
+    }
+
+    // Queue the student for a seat. Returns false if they are already waiting.
+    boolean joinWaitlist(Course course, String studentId) {
+        Section section = section(course);
+        if (!section.waiting.add(studentId)) {
+            return false;
+        }
+        section.waitlist.add(studentId);
+        // A seat may have been freed while the student was being queued
+        promote(section, course);
+        return true;
+    }
+
+    boolean leaveWaitlist(Course course, String studentId) {
+        Section section = existing(course);
+        if (section == null || !section.waiting.remove(studentId)) {
+            return false;
+        }
+        section.waitlist.remove(studentId);
+        return true;
+    }
+
+    // Whether a seat in the section is being handed to the student right now; the promoter
+    // has not decided yet whether they take it
+    boolean isPromoting(Course course, String studentId) {
+        Section section = existing(course);
+        return section != null && section.promoting.contains(studentId);
+    }
+
+    // 1-based place of the student in the waitlist, or 0 if they are not on it
+    int waitlistPosition(Course course, String studentId) {
+        Section section = existing(course);
+        if (section == null) {
+            return 0;
+        }
+        int position = 1;
+        for (String waiting : section.waitlist) {
+            if (waiting.equals(studentId)) {
+                return section.waiting.contains(studentId) ? position : 0;
+            }
+            if (section.waiting.contains(waiting)) {
+                position++;
+            }
+        }
+        return 0;
+    }
+
+    List<String> waitlist(Course course) {
+        Section section = existing(course);
+        List<String> students = new ArrayList<>();
+        if (section != null) {
+            for (String waiting : section.waitlist) {
+                if (section.waiting.contains(waiting)) {
+                    students.add(waiting);
+                }
+            }
+        }
+        return students;
+    }
+
+    // Hand free seats to waitlisted students, in order. The seat is taken before the head
+    // is removed, so two threads promoting at once never give out more seats than are free.
+    // The student is marked as promoting before leaving the waiting set, so a drop never
+    // finds them in neither.
+    private void promote(Section section, Course course) {
+        while (!section.waitlist.isEmpty() && section.take()) {
+            String next = section.waitlist.poll();
+            boolean placed = false;
+            if (next != null) {
+                section.promoting.add(next);
+                try {
+                    placed = section.waiting.remove(next) && promoter.test(next, course);
+                } finally {
+                    section.promoting.remove(next);
+                }
+            }
+            if (!placed) {
+                section.taken.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.sanchit.timetable;
+
+import java.util.Arrays;
+
+import com.sanchit.timetable.CatalogSnapshot.Slice;
+
+// Hash index from a key (course code, instructor, section label) to the slice of courses filed
+// under it, as a hash array mapped trie: each node branches on five bits of the key's hash and
+// stores only the branches in use. Keys whose whole hash is equal share a leaf chain.
+//
+// snapshot() hands out a read-only copy in O(1) the same way CourseIntervalIndex does: nodes
+// that existed when it was taken are never modified again, later changes copy the nodes on
+// their path (at most seven) instead. Nodes created since the last snapshot are updated in
+// place, so filing a chunk of courses between snapshots copies each touched path once.
+final class SliceIndex {
+    private static final class Node {
+        final long generation;
+        // Bit b set when branch b is in use; slots holds the used branches in order
+        int bitmap;
+        Object[] slots;
+
+        Node(long generation, int bitmap, Object[] slots) {
+            this.generation = generation;
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    private static final class Leaf {
+        final int hash;
+        final String key;
+        final Slice slice;
+        // Next key with the same hash, or null
+        final Leaf next;
+
+        Leaf(int hash, String key, Slice slice, Leaf next) {
+            this.hash = hash;
+            this.key = key;
+            this.slice = slice;
+            this.next = next;
+        }
+    }
+
+    private Node root;
+    private long generation;
+    private final boolean readOnly;
+
+    SliceIndex() {
+        root = new Node(0, 0, new Object[0]);
+        readOnly = false;
+    }
+
+    private SliceIndex(Node root) {
+        this.root = root;
+        this.readOnly = true;
+    }
+
+    // Read-only copy of the index as it is now
+    SliceIndex snapshot() {
+        generation++;
+        return new SliceIndex(root);
+    }
+
+    Slice get(String key) {
+        int hash = key.hashCode();
+        Node node = root;
+        for (int shift = 0; ; shift += 5) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+            if (slot instanceof Node) {
+                node = (Node) slot;
+                continue;
+            }
+            for (Leaf leaf = (Leaf) slot; leaf != null; leaf = leaf.next) {
+                if (leaf.hash == hash && leaf.key.equals(key)) {
+                    return leaf.slice;
+                }
+            }
+            return null;
+        }
+    }
+
+    boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    void put(String key, Slice slice) {
+        checkWritable();
+        root = put(root, new Leaf(key.hashCode(), key, slice, null), 0);
+    }
+
+    void remove(String key) {
+        checkWritable();
+        Node node = remove(root, key, key.hashCode(), 0);
+        root = node != null ? node : new Node(generation, 0, new Object[0]);
+    }
+
+    private Node put(Node node, Leaf added, int shift) {
+        node = editable(node);
+        int bit = 1 << ((added.hash >>> shift) & 31);
+        int i = Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) == 0) {
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, i);
+            System.arraycopy(node.slots, i, slots, i + 1, node.slots.length - i);
+            slots[i] = added;
+            node.slots = slots;
+            node.bitmap |= bit;
+            return node;
+        }
+        Object slot = node.slots[i];
+        if (slot instanceof Node) {
+            node.slots[i] = put((Node) slot, added, shift + 5);
+            return node;
+        }
+        Leaf leaf = (Leaf) slot;
+        if (leaf.hash == added.hash) {
+            node.slots[i] = new Leaf(added.hash, added.key, added.slice, without(leaf, added.key));
+            return node;
+        }
+        // Two hashes meeting here differ further down; give the old leaf a node of its own
+        Node child = new Node(generation, 1 << ((leaf.hash >>> (shift + 5)) & 31), new Object[] { leaf });
+        node.slots[i] = put(child, added, shift + 5);
+        return node;
+    }
+
+    // The node without the key, or null when it is left empty
+    private Node remove(Node node, String key, int hash, int shift) {
+        int bit = 1 << ((hash >>> shift) & 31);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int i = Integer.bitCount(node.bitmap & (bit - 1));
+        Object slot = node.slots[i];
+        Object replacement;
+        if (slot instanceof Node) {
+            replacement = remove((Node) slot, key, hash, shift + 5);
+        } else {
+            replacement = without((Leaf) slot, key);
+        }
+        if (replacement == slot) {
+            return node;
+        }
+        node = editable(node);
+        if (replacement != null) {
+            node.slots[i] = replacement;
+            return node;
+        }
+        if (node.slots.length == 1) {
+            return null;
+        }
+        Object[] slots = new Object[node.slots.length - 1];
+        System.arraycopy(node.slots, 0, slots, 0, i);
+        System.arraycopy(node.slots, i + 1, slots, i, slots.length - i);
+        node.slots = slots;
+        node.bitmap &= ~bit;
+        return node;
+    }
+
+    // The leaf chain without the key; the chain itself when the key is not in it
+    private static Leaf without(Leaf leaf, String key) {
+        if (leaf == null) {
+            return null;
+        }
+        if (leaf.key.equals(key)) {
+            return leaf.next;
+        }
+        Leaf rest = without(leaf.next, key);
+        return rest == leaf.next ? leaf : new Leaf(leaf.hash, leaf.key, leaf.slice, rest);
+    }
+
+    // The node itself while it is private to the writer, otherwise a copy that is
+    private Node editable(Node node) {
+        return node.generation == generation ? node
+                : new Node(generation, node.bitmap, Arrays.copyOf(node.slots, node.slots.length));
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Read-only snapshot");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sanchit.timetable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Immutable time range within a day, in minutes since midnight (end exclusive), parsed from
+// strings such as "9:00 - 10:00", "2 - 5 pm" or "9:00 - 9:50 am". Each distinct string is
+// parsed once, and strings describing the same range share one instance.
+final class TimeSlot {
+    private static final Pattern TIME_PATTERN = Pattern.compile(
+            "^\\s*(\\d{1,2})(?::(\\d{2}))?\\s*([aApP][mM])?\\s*-\\s*(\\d{1,2})(?::(\\d{2}))?\\s*([aApP][mM])?\\s*$");
+
+    private static final int MAX_CACHED = 10_000;
+    private static final Map<String, TimeSlot> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Integer, TimeSlot> BY_RANGE = new ConcurrentHashMap<>();
+    // Cached result for strings that are not a time range
+    private static final TimeSlot INVALID = new TimeSlot(-1, -1);
+
+    private final int start, end;
+
+    private TimeSlot(int start, int end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    // The slot for a string, or null if it is not a valid time range
+    static TimeSlot of(String time) {
+        if (time == null) {
+            return null;
+        }
+        TimeSlot cached = CACHE.get(time);
+        if (cached == null) {
+            cached = parse(time);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(time, cached);
+            }
+        }
+        return cached == INVALID ? null : cached;
+    }
+
+    static TimeSlot of(int start, int end) {
+        return BY_RANGE.computeIfAbsent(start * 24 * 60 + end, k -> new TimeSlot(start, end));
+    }
+
+    int start() {
+        return start;
+    }
+
+    int end() {
+        return end;
+    }
+
+    boolean overlaps(TimeSlot other) {
+        return start < other.end && other.start < end;
+    }
+
+    public String toString() {
+        return format(start) + " - " + format(end);
+    }
+
+    private static String format(int minute) {
+        int hour = minute / 60 % 12;
+        return (hour == 0 ? 12 : hour) + ":" + (minute % 60 < 10 ? "0" : "") + minute % 60;
+    }
+
+    // Without am/pm, hours 1-7 are taken as afternoon, matching the slots used in the UI, but
+    // only when that gives a valid range: "7:30 - 8:50" is read as morning, not 19:30 - 8:50
+    private static TimeSlot parse(String time) {
+        Matcher m = TIME_PATTERN.matcher(time);
+        if (!m.matches()) {
+            return INVALID;
+        }
+        int startHour = Integer.parseInt(m.group(1));
+        int startMinute = m.group(2) != null ? Integer.parseInt(m.group(2)) : 0;
+        int endHour = Integer.parseInt(m.group(4));
+        int endMinute = m.group(5) != null ? Integer.parseInt(m.group(5)) : 0;
+        String startSuffix = m.group(3), endSuffix = m.group(6);
+
+        if (startSuffix == null && endSuffix != null) {
+            // "2 - 5 pm": the start takes the end's marker when that makes a valid range
+            TimeSlot slot = range(toMinutes(startHour, startMinute, endSuffix, false),
+                    toMinutes(endHour, endMinute, endSuffix, false));
+            if (slot != null) {
+                return slot;
+            }
+        }
+        // Afternoon guess first, then the hours as written
+        TimeSlot slot = range(toMinutes(startHour, startMinute, startSuffix, true),
+                toMinutes(endHour, endMinute, endSuffix, true));
+        if (slot == null) {
+            slot = range(toMinutes(startHour, startMinute, startSuffix, false),
+                    toMinutes(endHour, endMinute, endSuffix, false));
+        }
+        return slot != null ? slot : INVALID;
+    }
+
+    private static TimeSlot range(int start, int end) {
+        return start < 0 || end < 0 || end > 24 * 60 || start >= end ? null : of(start, end);
+    }
+
+    private static int toMinutes(int hour, int minute, String suffix, boolean afternoonGuess) {
+        if (hour > 23 || minute > 59) {
+            return -1;
+        }
+        if (suffix == null) {
+            if (afternoonGuess && hour >= 1 && hour <= 7) {
+                hour += 12;
+            }
+        } else if (suffix.equalsIgnoreCase("pm")) {
+            if (hour < 12) {
+                hour += 12;
+            }
+        } else if (hour == 12) {
+            hour = 0;
+        }
+        return hour * 60 + minute;
+    }
+}
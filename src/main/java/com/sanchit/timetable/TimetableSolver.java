@@ -0,0 +1,591 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+// Assigns lecture and lab slots to courses so that
+//  - no instructor teaches two things at once,
+//  - the lecture and lab of a course never overlap,
+//  - courses added as a group (for example one cohort's courses) never clash,
+//  - every instructor keeps 12:00-1:00 or 1:00-2:00 free on each day (the lunch rule),
+//  - nothing is placed when its instructor is unavailable or already teaches a pinned course.
+//
+// Every candidate slot is one bit of a long, so a variable's domain is a single long and
+// forward checking is an AND per neighbour. The search always branches on the variable with
+// the smallest domain and undoes domain changes through a trail when it backtracks.
+class TimetableSolver {
+    static final String[] LECTURE_PATTERNS = { "MWF", "TTh" };
+    static final String[] LECTURE_TIMES = {
+            "8:00 - 9:00", "9:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00",
+            "12:00 - 1:00", "1:00 - 2:00", "2:00 - 3:00", "3:00 - 4:00", "4:00 - 5:00"
+    };
+    static final String[] LAB_DAYS = { "M", "T", "W", "Th", "F" };
+    static final String[] LAB_TIMES = { "8:00 - 10:00", "10:00 - 12:00", "1:00 - 3:00", "3:00 - 5:00" };
+    static final String EARLY_LUNCH = "12:00 - 1:00", LATE_LUNCH = "1:00 - 2:00";
+
+    enum Status {
+        SOLVED, INFEASIBLE, LIMIT_REACHED, CANCELLED
+    }
+
+    // One concrete choice of days and time for a lecture or a lab
+    static final class Slot {
+        final String days, time;
+        final boolean lab;
+        final WeekOccupancy occupancy;
+        // Days on which this slot uses the early / late lunch hour
+        final int earlyLunchDays, lateLunchDays;
+
+        Slot(String days, String time, boolean lab) {
+            this.days = days;
+            this.time = time;
+            this.lab = lab;
+            this.occupancy = WeekOccupancy.of(days, time, false, null, null);
+            this.earlyLunchDays = lunchDays(occupancy, EARLY_LUNCH);
+            this.lateLunchDays = lunchDays(occupancy, LATE_LUNCH);
+        }
+
+        public String toString() {
+            return days + " " + time;
+        }
+    }
+
+    static final class Result {
+        final Status status;
+        final long backtracks;
+        final Map<Course, Slot> lectures, labs;
+
+        Result(Status status, long backtracks, Map<Course, Slot> lectures, Map<Course, Slot> labs) {
+            this.status = status;
+            this.backtracks = backtracks;
+            this.lectures = lectures;
+            this.labs = labs;
+        }
+
+        boolean isSolved() {
+            return status == Status.SOLVED;
+        }
+
+        // Copy the slots assigned to the course into the timing fields of target (the course
+        // itself or a copy of it), interned like the timing of courses read from a catalog
+        void applyTo(Course course, Course target) {
+            Slot lecture = lectures.get(course);
+            if (lecture != null) {
+                target.lectureDays = CourseDictionary.intern(lecture.days);
+                target.lectureTime = CourseDictionary.intern(lecture.time);
+            }
+            Slot lab = labs.get(course);
+            if (lab != null) {
+                target.labDays = CourseDictionary.intern(lab.days);
+                target.labTime = CourseDictionary.intern(lab.time);
+            }
+        }
+
+        // Write the assignment back to the repository, with a single change notification. The
+        // repository swaps in updated copies, so the courses of this result keep their old timing.
+        void applyToRepository() {
+            CourseRepository.updateCourses(lectures.keySet(), this::applyTo);
+        }
+    }
+
+    private final List<Slot> slots = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+    private final List<Course> pinned = new ArrayList<>();
+    private final Map<String, List<WeekOccupancy>> unavailable = new HashMap<>();
+    private final List<Collection<Course>> groups = new ArrayList<>();
+    private long seed;
+    private long maxBacktracks = Long.MAX_VALUE;
+    private BooleanSupplier cancelled = () -> false;
+
+    TimetableSolver() {
+        for (String pattern : LECTURE_PATTERNS) {
+            for (String time : LECTURE_TIMES) {
+                slots.add(new Slot(pattern, time, false));
+            }
+        }
+        for (String day : LAB_DAYS) {
+            for (String time : LAB_TIMES) {
+                slots.add(new Slot(day, time, true));
+            }
+        }
+    }
+
+    // Courses whose lecture (and lab, if they have one) should be placed
+    void schedule(Collection<Course> toSchedule) {
+        courses.addAll(toSchedule);
+    }
+
+    // Courses that keep their current timing but still block their instructor and groups
+    void pin(Collection<Course> fixed) {
+        pinned.addAll(fixed);
+    }
+
+    void setUnavailable(String instructor, String days, String time) {
+        unavailable.computeIfAbsent(instructor, k -> new ArrayList<>())
+                .add(WeekOccupancy.of(days, time, false, null, null));
+    }
+
+    // Courses that must not clash with each other, e.g. the courses one cohort takes
+    void addGroup(Collection<Course> group) {
+        groups.add(group);
+    }
+
+    // 0 keeps the natural variable and value order; other seeds shuffle the tie-breaks
+    void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    void setMaxBacktracks(long maxBacktracks) {
+        this.maxBacktracks = maxBacktracks;
+    }
+
+    void setCancelled(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    // Same problem and settings, so another search can run on it independently
+    TimetableSolver copy() {
+        TimetableSolver copy = new TimetableSolver();
+        copy.courses.addAll(courses);
+        copy.pinned.addAll(pinned);
+        unavailable.forEach((instructor, blocks) -> copy.unavailable.put(instructor, new ArrayList<>(blocks)));
+        copy.groups.addAll(groups);
+        copy.seed = seed;
+        copy.maxBacktracks = maxBacktracks;
+        copy.cancelled = cancelled;
+        return copy;
+    }
+
+    List<Slot> getSlots() {
+        return Collections.unmodifiableList(slots);
+    }
+
+    Result solve() {
+        return new Search().run();
+    }
+
+    // Days (bit per weekday) on which the occupancy uses the given lunch hour
+    static int lunchDays(WeekOccupancy occupancy, String lunchHour) {
+        int days = 0;
+        for (int day = 0; day < WeekOccupancy.DAYS; day++) {
+            if (occupancy.overlaps(WeekOccupancy.of(LAB_DAYS[day], lunchHour, false, null, null))) {
+                days |= 1 << day;
+            }
+        }
+        return days;
+    }
+
+    // State of one solve() call
+    private class Search {
+        final int slotCount = slots.size();
+        final long[] overlap = new long[slotCount];
+        final long[] earlyLunchSlots = new long[WeekOccupancy.DAYS];
+        final long[] lateLunchSlots = new long[WeekOccupancy.DAYS];
+        final int[] valueOrder = new int[slotCount];
+
+        // Variables: one per lecture and one per lab
+        int n;
+        Course[] varCourse;
+        boolean[] varLab;
+        int[] varInstructor;
+        int[][] neighbours;
+        int[][] instructorVars;
+        long[] domain;
+        int[] assigned;
+        int[] tieBreak;
+        int[] earlyLunch, lateLunch;
+
+        // Undo trail: kind 0 = domain of a variable, 1 = early lunch, 2 = late lunch of an instructor
+        int[] trailKind = new int[256], trailIndex = new int[256];
+        long[] trailOld = new long[256];
+        int trailSize;
+        long backtracks;
+
+        Result run() {
+            if (slotCount > 64) {
+                throw new IllegalStateException("At most 64 candidate slots are supported");
+            }
+            Random random = new Random(seed);
+            for (int s = 0; s < slotCount; s++) {
+                valueOrder[s] = s;
+                for (int t = 0; t < slotCount; t++) {
+                    if (slots.get(s).occupancy.overlaps(slots.get(t).occupancy)) {
+                        overlap[s] |= 1L << t;
+                    }
+                }
+                for (int day = 0; day < WeekOccupancy.DAYS; day++) {
+                    if ((slots.get(s).earlyLunchDays & (1 << day)) != 0) {
+                        earlyLunchSlots[day] |= 1L << s;
+                    }
+                    if ((slots.get(s).lateLunchDays & (1 << day)) != 0) {
+                        lateLunchSlots[day] |= 1L << s;
+                    }
+                }
+            }
+            if (seed != 0) {
+                for (int i = slotCount - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int tmp = valueOrder[i];
+                    valueOrder[i] = valueOrder[j];
+                    valueOrder[j] = tmp;
+                }
+            }
+            buildVariables(random);
+            for (int v = 0; v < n; v++) {
+                if (domain[v] == 0) {
+                    return result(Status.INFEASIBLE);
+                }
+            }
+            return search();
+        }
+
+        private void buildVariables(Random random) {
+            Map<Course, Boolean> scheduled = new IdentityHashMap<>();
+            List<Course> unique = new ArrayList<>();
+            for (Course c : courses) {
+                if (scheduled.put(c, Boolean.TRUE) == null) {
+                    unique.add(c);
+                }
+            }
+
+            Map<String, Integer> instructorIds = new HashMap<>();
+            List<Course> varCourses = new ArrayList<>();
+            List<Boolean> varLabs = new ArrayList<>();
+            Map<Course, int[]> varsOfCourse = new IdentityHashMap<>();
+            for (Course c : unique) {
+                int lecture = varCourses.size();
+                varCourses.add(c);
+                varLabs.add(false);
+                int lab = -1;
+                if (c.hasLab) {
+                    lab = varCourses.size();
+                    varCourses.add(c);
+                    varLabs.add(true);
+                }
+                varsOfCourse.put(c, lab >= 0 ? new int[] { lecture, lab } : new int[] { lecture });
+            }
+
+            n = varCourses.size();
+            varCourse = varCourses.toArray(new Course[0]);
+            varLab = new boolean[n];
+            varInstructor = new int[n];
+            domain = new long[n];
+            assigned = new int[n];
+            tieBreak = new int[n];
+            Arrays.fill(assigned, -1);
+            for (int v = 0; v < n; v++) {
+                varLab[v] = varLabs.get(v);
+                String instructor = varCourse[v].instructorName;
+                varInstructor[v] = instructor == null || instructor.isEmpty() ? -1
+                        : instructorIds.computeIfAbsent(instructor, k -> instructorIds.size());
+                tieBreak[v] = seed != 0 ? random.nextInt() : v;
+            }
+            earlyLunch = new int[instructorIds.size()];
+            lateLunch = new int[instructorIds.size()];
+
+            // Cliques of variables that must not overlap
+            List<int[]> cliques = new ArrayList<>();
+            List<List<Integer>> byInstructor = new ArrayList<>();
+            for (int i = 0; i < instructorIds.size(); i++) {
+                byInstructor.add(new ArrayList<>());
+            }
+            for (int v = 0; v < n; v++) {
+                if (varInstructor[v] >= 0) {
+                    byInstructor.get(varInstructor[v]).add(v);
+                }
+            }
+            instructorVars = new int[instructorIds.size()][];
+            for (int i = 0; i < instructorIds.size(); i++) {
+                instructorVars[i] = byInstructor.get(i).stream().mapToInt(Integer::intValue).toArray();
+                cliques.add(instructorVars[i]);
+            }
+            for (int[] vars : varsOfCourse.values()) {
+                if (vars.length > 1) {
+                    cliques.add(vars);
+                }
+            }
+            for (Collection<Course> group : groups) {
+                List<Integer> vars = new ArrayList<>();
+                for (Course c : group) {
+                    int[] cv = varsOfCourse.get(c);
+                    if (cv != null) {
+                        for (int v : cv) {
+                            vars.add(v);
+                        }
+                    }
+                }
+                cliques.add(vars.stream().mapToInt(Integer::intValue).toArray());
+            }
+            neighbours = buildNeighbours(cliques);
+
+            // Initial domains: the right kind of slot, minus anything that clashes with
+            // pinned courses, unavailability, or breaks the lunch rule on its own
+            long lectureSlots = 0, labSlots = 0;
+            for (int s = 0; s < slotCount; s++) {
+                Slot slot = slots.get(s);
+                if ((slot.earlyLunchDays & slot.lateLunchDays) != 0) {
+                    continue;
+                }
+                if (slot.lab) {
+                    labSlots |= 1L << s;
+                } else {
+                    lectureSlots |= 1L << s;
+                }
+            }
+            Map<String, List<WeekOccupancy>> blocksByInstructor = new HashMap<>();
+            for (Map.Entry<String, List<WeekOccupancy>> e : unavailable.entrySet()) {
+                blocksByInstructor.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).addAll(e.getValue());
+            }
+            for (Course p : pinned) {
+                if (scheduled.containsKey(p) || p.instructorName == null) {
+                    continue;
+                }
+                blocksByInstructor.computeIfAbsent(p.instructorName, k -> new ArrayList<>()).add(p.occupancy);
+                Integer id = instructorIds.get(p.instructorName);
+                if (id != null) {
+                    earlyLunch[id] |= lunchDays(p.occupancy, EARLY_LUNCH);
+                    lateLunch[id] |= lunchDays(p.occupancy, LATE_LUNCH);
+                }
+            }
+            Map<Course, List<WeekOccupancy>> groupBlocks = new IdentityHashMap<>();
+            for (Collection<Course> group : groups) {
+                List<WeekOccupancy> fixed = new ArrayList<>();
+                for (Course c : group) {
+                    if (!scheduled.containsKey(c)) {
+                        fixed.add(c.occupancy);
+                    }
+                }
+                if (!fixed.isEmpty()) {
+                    for (Course c : group) {
+                        if (scheduled.containsKey(c)) {
+                            groupBlocks.computeIfAbsent(c, k -> new ArrayList<>()).addAll(fixed);
+                        }
+                    }
+                }
+            }
+
+            for (int v = 0; v < n; v++) {
+                long d = varLab[v] ? labSlots : lectureSlots;
+                List<WeekOccupancy> blocks = new ArrayList<>();
+                if (varInstructor[v] >= 0) {
+                    blocks.addAll(blocksByInstructor.getOrDefault(varCourse[v].instructorName,
+                            Collections.emptyList()));
+                    d &= ~lunchPruneMask(earlyLunch[varInstructor[v]], lateLunch[varInstructor[v]]);
+                }
+                blocks.addAll(groupBlocks.getOrDefault(varCourse[v], Collections.emptyList()));
+                for (int s = 0; s < slotCount; s++) {
+                    if ((d & (1L << s)) == 0) {
+                        continue;
+                    }
+                    for (WeekOccupancy block : blocks) {
+                        if (slots.get(s).occupancy.overlaps(block)) {
+                            d &= ~(1L << s);
+                            break;
+                        }
+                    }
+                }
+                domain[v] = d;
+            }
+        }
+
+        private int[][] buildNeighbours(List<int[]> cliques) {
+            List<List<int[]>> cliquesOf = new ArrayList<>();
+            for (int v = 0; v < n; v++) {
+                cliquesOf.add(new ArrayList<>());
+            }
+            for (int[] clique : cliques) {
+                for (int v : clique) {
+                    cliquesOf.get(v).add(clique);
+                }
+            }
+            int[][] result = new int[n][];
+            int[] stamp = new int[n];
+            int[] buffer = new int[n];
+            for (int v = 0; v < n; v++) {
+                int count = 0;
+                stamp[v] = v + 1;
+                for (int[] clique : cliquesOf.get(v)) {
+                    for (int u : clique) {
+                        if (stamp[u] != v + 1) {
+                            stamp[u] = v + 1;
+                            buffer[count++] = u;
+                        }
+                    }
+                }
+                result[v] = Arrays.copyOf(buffer, count);
+            }
+            return result;
+        }
+
+        // Slots that would leave no free lunch hour on some day, given the days on which
+        // the early and late lunch hours are already taken
+        private long lunchPruneMask(int early, int late) {
+            long mask = 0;
+            for (int day = 0; day < WeekOccupancy.DAYS; day++) {
+                if ((early & (1 << day)) != 0) {
+                    mask |= lateLunchSlots[day];
+                }
+                if ((late & (1 << day)) != 0) {
+                    mask |= earlyLunchSlots[day];
+                }
+            }
+            return mask;
+        }
+
+        private Result search() {
+            int[] stackVar = new int[n];
+            long[] stackUntried = new long[n];
+            int[] stackMark = new int[n];
+            int depth = 0;
+            long steps = 0;
+
+            while (true) {
+                int v = selectVariable();
+                if (v < 0) {
+                    return result(Status.SOLVED);
+                }
+                stackVar[depth] = v;
+                stackUntried[depth] = domain[v];
+                stackMark[depth] = trailSize;
+                depth++;
+
+                // Find a value for the top frame, backtracking as needed
+                while (true) {
+                    if (depth == 0) {
+                        return result(Status.INFEASIBLE);
+                    }
+                    if ((++steps & 1023) == 0 && cancelled.getAsBoolean()) {
+                        return result(Status.CANCELLED);
+                    }
+                    int d = depth - 1;
+                    int var = stackVar[d];
+                    undo(stackMark[d]);
+                    assigned[var] = -1;
+                    if (stackUntried[d] == 0) {
+                        depth--;
+                        if (++backtracks > maxBacktracks) {
+                            return result(Status.LIMIT_REACHED);
+                        }
+                        continue;
+                    }
+                    int s = pickValue(stackUntried[d]);
+                    stackUntried[d] &= ~(1L << s);
+                    if (assign(var, s)) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Unassigned variable with the fewest remaining slots, most neighbours first on ties
+        private int selectVariable() {
+            int best = -1, bestSize = Integer.MAX_VALUE, bestDegree = -1, bestTie = 0;
+            for (int v = 0; v < n; v++) {
+                if (assigned[v] >= 0) {
+                    continue;
+                }
+                int size = Long.bitCount(domain[v]);
+                int degree = neighbours[v].length;
+                if (size < bestSize || (size == bestSize && (degree > bestDegree
+                        || (degree == bestDegree && tieBreak[v] < bestTie)))) {
+                    best = v;
+                    bestSize = size;
+                    bestDegree = degree;
+                    bestTie = tieBreak[v];
+                }
+            }
+            return best;
+        }
+
+        private int pickValue(long untried) {
+            for (int s : valueOrder) {
+                if ((untried & (1L << s)) != 0) {
+                    return s;
+                }
+            }
+            throw new IllegalStateException("No value left");
+        }
+
+        private boolean assign(int v, int s) {
+            assigned[v] = s;
+            long clash = overlap[s];
+            for (int u : neighbours[v]) {
+                if (assigned[u] < 0 && (domain[u] & clash) != 0) {
+                    record(0, u, domain[u]);
+                    domain[u] &= ~clash;
+                    if (domain[u] == 0) {
+                        return false;
+                    }
+                }
+            }
+
+            int instructor = varInstructor[v];
+            if (instructor < 0) {
+                return true;
+            }
+            Slot slot = slots.get(s);
+            int early = earlyLunch[instructor] | slot.earlyLunchDays;
+            int late = lateLunch[instructor] | slot.lateLunchDays;
+            if (early == earlyLunch[instructor] && late == lateLunch[instructor]) {
+                return true;
+            }
+            record(1, instructor, earlyLunch[instructor]);
+            record(2, instructor, lateLunch[instructor]);
+            earlyLunch[instructor] = early;
+            lateLunch[instructor] = late;
+            long prune = lunchPruneMask(early, late);
+            for (int u : instructorVars[instructor]) {
+                if (assigned[u] < 0 && (domain[u] & prune) != 0) {
+                    record(0, u, domain[u]);
+                    domain[u] &= ~prune;
+                    if (domain[u] == 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void record(int kind, int index, long old) {
+            if (trailSize == trailKind.length) {
+                trailKind = Arrays.copyOf(trailKind, trailSize * 2);
+                trailIndex = Arrays.copyOf(trailIndex, trailSize * 2);
+                trailOld = Arrays.copyOf(trailOld, trailSize * 2);
+            }
+            trailKind[trailSize] = kind;
+            trailIndex[trailSize] = index;
+            trailOld[trailSize] = old;
+            trailSize++;
+        }
+
+        private void undo(int mark) {
+            while (trailSize > mark) {
+                trailSize--;
+                int index = trailIndex[trailSize];
+                switch (trailKind[trailSize]) {
+                    case 0 -> domain[index] = trailOld[trailSize];
+                    case 1 -> earlyLunch[index] = (int) trailOld[trailSize];
+                    default -> lateLunch[index] = (int) trailOld[trailSize];
+                }
+            }
+        }
+
+        private Result result(Status status) {
+            Map<Course, Slot> lectures = new IdentityHashMap<>();
+            Map<Course, Slot> labs = new IdentityHashMap<>();
+            if (status == Status.SOLVED) {
+                for (int v = 0; v < n; v++) {
+                    (varLab[v] ? labs : lectures).put(varCourse[v], slots.get(assigned[v]));
+                }
+            }
+            return new Result(status, backtracks, lectures, labs);
+        }
+    }
+}
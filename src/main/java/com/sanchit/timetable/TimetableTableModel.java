@@ -0,0 +1,170 @@
+package com.sanchit.timetable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+// Weekly timetable grid (one row per hour, one column per weekday) for JTables.
+// Cells hold no objects: every lecture or lab placed in a cell is an int entry
+// (course index * 2 + 1 for labs) in a per-cell linked list kept in plain int arrays, so a
+// grid with thousands of sections per cell costs a few ints per placement. Cell text is only
+// built when a cell is rendered, and kept until the courses change.
+class TimetableTableModel extends AbstractTableModel {
+    static final String[] COLUMN_NAMES = { "Time", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
+    static final String[] TIME_SLOTS = {
+            "8:00 - 9:00", "9:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00",
+            "12:00 - 1:00", "1:00 - 2:00", "2:00 - 3:00", "3:00 - 4:00", "4:00 - 5:00"
+    };
+    // Hour of day at which the first row starts
+    static final int FIRST_HOUR = 8;
+    // How many courses a crowded cell lists before summarizing the rest
+    static final int MAX_LISTED = 3;
+
+    private static final int ROWS = TIME_SLOTS.length;
+    private static final int DAYS = DayPattern.DAYS;
+
+    private List<Course> courses = Collections.emptyList();
+    // First entry of each cell (-1 if empty) and the number of entries in it
+    private final int[] head = new int[ROWS * DAYS];
+    private final int[] count = new int[ROWS * DAYS];
+    // Entry storage: what was placed and the next entry of the same cell
+    private int[] value = new int[64];
+    private int[] next = new int[64];
+    private int size;
+    private final String[] text = new String[ROWS * DAYS];
+
+    TimetableTableModel() {
+        Arrays.fill(head, -1);
+    }
+
+    TimetableTableModel(List<Course> courses) {
+        this();
+        setCourses(courses);
+    }
+
+    // Replace the grid contents with the lectures and labs of the given courses
+    void setCourses(List<Course> courses) {
+        this.courses = new ArrayList<>(courses);
+        Arrays.fill(head, -1);
+        Arrays.fill(count, 0);
+        Arrays.fill(text, null);
+        size = 0;
+        for (int i = 0; i < this.courses.size(); i++) {
+            Course course = this.courses.get(i);
+            place(i << 1, DayPattern.of(course.lectureDays), TimeSlot.of(course.lectureTime));
+            if (course.hasLab) {
+                place(i << 1 | 1, DayPattern.of(course.labDays), TimeSlot.of(course.labTime));
+            }
+        }
+        fireTableDataChanged();
+    }
+
+    // Number of lectures and labs in a cell of the weekday columns
+    int getEntryCount(int row, int column) {
+        return column == 0 ? 0 : count[cell(row, column)];
+    }
+
+    // Courses with a lecture or lab in the cell, in the order they were given
+    List<Course> getCoursesAt(int row, int column) {
+        if (column == 0) {
+            return Collections.emptyList();
+        }
+        List<Course> result = new ArrayList<>();
+        for (int e = head[cell(row, column)]; e >= 0; e = next[e]) {
+            result.add(courses.get(value[e] >>> 1));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    public int getRowCount() {
+        return ROWS;
+    }
+
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    public Object getValueAt(int row, int column) {
+        if (column == 0) {
+            return TIME_SLOTS[row];
+        }
+        int cell = cell(row, column);
+        String cached = text[cell];
+        if (cached == null) {
+            cached = describe(cell);
+            text[cell] = cached;
+        }
+        return cached;
+    }
+
+    private static int cell(int row, int column) {
+        return row * DAYS + column - 1;
+    }
+
+    // Add the entry to every hourly row the slot touches, on each of its days
+    private void place(int entry, DayPattern days, TimeSlot slot) {
+        if (slot == null) {
+            return;
+        }
+        int firstRow = Math.max(0, Math.floorDiv(slot.start() - FIRST_HOUR * 60, 60));
+        int lastRow = Math.min(ROWS - 1, Math.floorDiv(slot.end() - FIRST_HOUR * 60 - 1, 60));
+        for (int i = 0; i < days.dayCount(); i++) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                int cell = row * DAYS + days.day(i);
+                if (size == value.length) {
+                    value = Arrays.copyOf(value, size * 2);
+                    next = Arrays.copyOf(next, size * 2);
+                }
+                value[size] = entry;
+                next[size] = head[cell];
+                head[cell] = size++;
+                count[cell]++;
+            }
+        }
+    }
+
+    private String describe(int cell) {
+        int n = count[cell];
+        if (n == 0) {
+            return "";
+        }
+        // Entries are linked newest first; walk to the oldest ones for listing
+        int[] entries = new int[n];
+        int k = n;
+        for (int e = head[cell]; e >= 0; e = next[e]) {
+            entries[--k] = value[e];
+        }
+        if (n == 1) {
+            return label(entries[0]);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(n, MAX_LISTED); i++) {
+            Course course = courses.get(entries[i] >>> 1);
+            sb.append(i > 0 ? "\n" : "").append(course.courseCode).append((entries[i] & 1) != 0 ? " (Lab)" : "");
+        }
+        if (n > MAX_LISTED) {
+            sb.append("\n+").append(n - MAX_LISTED).append(" more");
+        }
+        return sb.toString();
+    }
+
+    private String label(int entry) {
+        Course course = courses.get(entry >>> 1);
+        if ((entry & 1) != 0) {
+            return course.courseCode + " (Lab)\n" + course.labSection;
+        }
+        return course.courseCode + "\n" + course.courseName;
+    }
+}
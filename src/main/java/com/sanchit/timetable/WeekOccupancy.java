@@ -0,0 +1,202 @@
+package com.sanchit.timetable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Immutable bitmask of the time a course occupies during the week.
+// Each weekday (Mon-Fri) is split into one-minute slots, packed into 113 longs, so times
+// off any coarser grid (9:00 - 9:52 next to 9:53 - 10:45) never clash by rounding, and
+// checking two courses for a clash is an AND over the words both of them use.
+final class WeekOccupancy {
+    static final int DAYS = 5;
+    static final int SLOT_MINUTES = 1;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int WORDS = (DAYS * SLOTS_PER_DAY + 63) / 64;
+
+    static final WeekOccupancy EMPTY = new WeekOccupancy(new long[WORDS]);
+
+    private record ScheduleKey(String lectureDays, String lectureTime, String labDays, String labTime) {
+    }
+
+    private static final int MAX_CACHED = 100_000;
+    private static final Map<ScheduleKey, WeekOccupancy> CACHE = new ConcurrentHashMap<>();
+
+    private final long[] bits;
+    // Bit i set if day i has any occupied slot, used for a quick reject
+    private final int dayMask;
+    // Range of words that contain set bits, so overlap checks skip empty days
+    private final int firstWord, lastWord;
+
+    private WeekOccupancy(long[] bits) {
+        this.bits = bits;
+        int mask = 0, first = WORDS, last = -1;
+        for (int w = 0; w < WORDS; w++) {
+            if (bits[w] != 0) {
+                first = Math.min(first, w);
+                last = w;
+            }
+        }
+        for (int day = 0; day < DAYS; day++) {
+            if (hasBitsInRange(bits, day * SLOTS_PER_DAY, (day + 1) * SLOTS_PER_DAY)) {
+                mask |= 1 << day;
+            }
+        }
+        this.dayMask = mask;
+        this.firstWord = first;
+        this.lastWord = last;
+    }
+
+    // Build the occupancy of a course from its lecture and (optional) lab schedule.
+    // Only a few distinct schedules exist in a catalog, so results are cached and shared.
+    static WeekOccupancy of(String lectureDays, String lectureTime, boolean hasLab, String labDays, String labTime) {
+        ScheduleKey key = new ScheduleKey(lectureDays, lectureTime, hasLab ? labDays : null, hasLab ? labTime : null);
+        WeekOccupancy cached = CACHE.get(key);
+        if (cached == null) {
+            cached = build(lectureDays, lectureTime, hasLab, labDays, labTime);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(key, cached);
+            }
+        }
+        return cached;
+    }
+
+    private static WeekOccupancy build(String lectureDays, String lectureTime, boolean hasLab,
+            String labDays, String labTime) {
+        long[] bits = new long[WORDS];
+        mark(bits, lectureDays, lectureTime);
+        if (hasLab) {
+            mark(bits, labDays, labTime);
+        }
+        return new WeekOccupancy(bits);
+    }
+
+    // Whether the days and time describe a real meeting; anything else occupies no time
+    static boolean isReadable(String days, String time) {
+        return DayPattern.of(days).mask() != 0 && TimeSlot.of(time) != null;
+    }
+
+    boolean overlaps(WeekOccupancy other) {
+        if ((dayMask & other.dayMask) == 0) {
+            return false;
+        }
+        int from = Math.max(firstWord, other.firstWord);
+        int to = Math.min(lastWord, other.lastWord);
+        for (int w = from; w <= to; w++) {
+            if ((bits[w] & other.bits[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Time occupied by either this or the other occupancy
+    WeekOccupancy union(WeekOccupancy other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        long[] union = bits.clone();
+        for (int w = other.firstWord; w <= other.lastWord; w++) {
+            union[w] |= other.bits[w];
+        }
+        return new WeekOccupancy(union);
+    }
+
+    boolean isEmpty() {
+        return dayMask == 0;
+    }
+
+    int dayMask() {
+        return dayMask;
+    }
+
+    // Occupied time as {day, startMinute, endMinute} triples, one per contiguous block
+    int[] intervals() {
+        int[] out = new int[0];
+        int count = 0;
+        for (int day = 0; day < DAYS; day++) {
+            if ((dayMask & (1 << day)) == 0) {
+                continue;
+            }
+            int base = day * SLOTS_PER_DAY;
+            int slot = 0;
+            while (true) {
+                int start = nextSlot(base + slot, base + SLOTS_PER_DAY, true) - base;
+                if (start == SLOTS_PER_DAY) {
+                    break;
+                }
+                slot = nextSlot(base + start, base + SLOTS_PER_DAY, false) - base;
+                if (out.length < (count + 1) * 3) {
+                    out = Arrays.copyOf(out, Math.max(6, out.length * 2));
+                }
+                out[count * 3] = day;
+                out[count * 3 + 1] = start * SLOT_MINUTES;
+                out[count * 3 + 2] = slot * SLOT_MINUTES;
+                count++;
+            }
+        }
+        return Arrays.copyOf(out, count * 3);
+    }
+
+    // First slot in from..to-1 that is set (or clear), or to if there is none
+    private int nextSlot(int from, int to, boolean set) {
+        if (from >= to) {
+            return to;
+        }
+        int w = from >>> 6;
+        long word = (set ? bits[w] : ~bits[w]) & (-1L << (from & 63));
+        while (word == 0) {
+            if (++w << 6 >= to) {
+                return to;
+            }
+            word = set ? bits[w] : ~bits[w];
+        }
+        return Math.min(to, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    private static void mark(long[] bits, String days, String time) {
+        if (days == null || time == null) {
+            return;
+        }
+        int dayMask = DayPattern.of(days).mask();
+        TimeSlot slot = TimeSlot.of(time);
+        if (dayMask == 0 || slot == null) {
+            return;
+        }
+        int startSlot = slot.start() / SLOT_MINUTES;
+        int endSlot = slot.end() / SLOT_MINUTES;
+        for (int day = 0; day < DAYS; day++) {
+            if ((dayMask & (1 << day)) != 0) {
+                setRange(bits, day * SLOTS_PER_DAY + startSlot, day * SLOTS_PER_DAY + endSlot);
+            }
+        }
+    }
+
+    private static void setRange(long[] bits, int from, int to) {
+        for (int w = from >>> 6; from < to; w++) {
+            int end = Math.min(to, (w + 1) << 6);
+            bits[w] |= rangeMask(from, end);
+            from = end;
+        }
+    }
+
+    private static boolean hasBitsInRange(long[] bits, int from, int to) {
+        for (int w = from >>> 6; from < to; w++) {
+            int end = Math.min(to, (w + 1) << 6);
+            if ((bits[w] & rangeMask(from, end)) != 0) {
+                return true;
+            }
+            from = end;
+        }
+        return false;
+    }
+
+    // Bits from..to-1 of the word holding bit from; the range must not cross a word boundary
+    private static long rangeMask(int from, int to) {
+        long upTo = (to & 63) == 0 ? -1L : (1L << (to & 63)) - 1;
+        return upTo & (-1L << (from & 63));
+    }
+}
@@ -0,0 +1,248 @@
+package com.sanchit.timetable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// Races on the seats of one section. Every task gets its own thread and waits on a shared start
+// gate so the threads really overlap, and each test only asserts what must hold however they
+// are interleaved: the section is never oversold and freed seats go to the waitlist in the
+// order it was joined.
+class SeatInventoryTest {
+    private static final int THREADS = 8;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void reserveAndReleaseNeverOversell() throws Exception {
+        Course course = course("CS F111");
+        SeatInventory seats = new SeatInventory((student, c) -> true);
+        seats.setCapacity(course, 5, 5);
+        AtomicBoolean oversold = new AtomicBoolean();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    if (seats.tryReserve(course)) {
+                        if (seats.taken(course) > seats.capacity(course)) {
+                            oversold.set(true);
+                        }
+                        seats.release(course);
+                    }
+                }
+                return null;
+            });
+        }
+        runTogether(tasks);
+
+        assertFalse(oversold.get());
+        assertEquals(0, seats.taken(course));
+    }
+
+    @Test
+    void seatSetAsideForAPromotionIsNotSoldOrLeftTwice() throws Exception {
+        Course course = course("CS F112");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        List<String> promoted = Collections.synchronizedList(new ArrayList<>());
+        // Holds the first promotion open until the test lets it go, and turns b down
+        SeatInventory seats = new SeatInventory((student, c) -> {
+            if (student.equals("a")) {
+                entered.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+            if (student.equals("b")) {
+                return false;
+            }
+            promoted.add(student);
+            return true;
+        });
+        seats.setCapacity(course, 1, 1);
+        assertTrue(seats.tryReserve(course));
+        for (String student : List.of("a", "b", "c")) {
+            assertTrue(seats.joinWaitlist(course, student));
+        }
+
+        Future<?> release = pool.submit(() -> seats.release(course));
+        entered.await();
+        assertFalse(seats.tryReserve(course));
+        assertTrue(seats.isPromoting(course, "a"));
+        assertFalse(seats.leaveWaitlist(course, "a"));
+        assertEquals(List.of("b", "c"), seats.waitlist(course));
+        assertTrue(seats.joinWaitlist(course, "late"));
+        proceed.countDown();
+        release.get();
+
+        assertEquals(List.of("a"), promoted);
+        assertEquals(1, seats.taken(course));
+        seats.release(course);
+        assertEquals(List.of("a", "c"), promoted);
+        assertEquals(List.of("late"), seats.waitlist(course));
+        assertEquals(1, seats.taken(course));
+    }
+
+    @Test
+    void enrollmentsStopAtCapacityAndQueueTheRest() throws Exception {
+        Course course = course("CS F211");
+        EnrollmentStore store = new EnrollmentStore();
+        store.seats().setCapacity(course, 10, 10);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                for (int i = 0; i < 50; i++) {
+                    store.enroll("s" + thread + "-" + i, course);
+                }
+                return null;
+            });
+        }
+        runTogether(tasks);
+
+        assertEquals(10, store.seats().taken(course));
+        assertEquals(10, enrolledIn(store, course));
+        assertEquals(THREADS * 50 - 10, store.seats().waitlist(course).size());
+    }
+
+    @Test
+    void freedSeatsGoToTheWaitlistInJoinOrder() throws Exception {
+        Course course = course("CS F212");
+        EnrollmentStore store = new EnrollmentStore();
+        store.seats().setCapacity(course, 3, 3);
+        List<String> holders = new ArrayList<>(List.of("h0", "h1", "h2"));
+        for (String holder : holders) {
+            assertEquals(EnrollmentStore.Status.ENROLLED, store.enroll(holder, course).status);
+        }
+        List<String> queued = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            queued.add("w" + i);
+            assertEquals(EnrollmentStore.Status.WAITLISTED, store.enroll("w" + i, course).status);
+        }
+
+        // Each round the holders drop at once while newcomers join the tail of the waitlist,
+        // so the next three students in join order must end up with the seats
+        for (int round = 0; round < 5; round++) {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (String holder : holders) {
+                tasks.add(() -> {
+                    assertEquals(EnrollmentStore.Status.DROPPED, store.drop(holder, course).status);
+                    return null;
+                });
+            }
+            for (int j = 0; j < 2; j++) {
+                String newcomer = "n" + round + "-" + j;
+                tasks.add(() -> {
+                    assertEquals(EnrollmentStore.Status.WAITLISTED, store.enroll(newcomer, course).status);
+                    return null;
+                });
+            }
+            runTogether(tasks);
+
+            holders = new ArrayList<>(queued.subList(0, 3));
+            queued.subList(0, 3).clear();
+            for (String holder : holders) {
+                assertTrue(store.schedule(holder).courses().contains(course), holder + " should hold a seat");
+            }
+            assertEquals(3, store.seats().taken(course));
+            assertEquals(3, enrolledIn(store, course));
+            assertEquals(queued, store.seats().waitlist(course).subList(0, queued.size()));
+        }
+    }
+
+    @Test
+    void waitlistedStudentsDroppingDuringPromotionAreSkipped() throws Exception {
+        Course course = course("CS F213");
+        EnrollmentStore store = new EnrollmentStore();
+        store.seats().setCapacity(course, 4, 4);
+        List<String> holders = List.of("h0", "h1", "h2", "h3");
+        for (String holder : holders) {
+            store.enroll(holder, course);
+        }
+        for (int i = 0; i < 20; i++) {
+            store.enroll("w" + i, course);
+        }
+
+        // Every even student leaves while the holders free their seats; whether a leaver is
+        // promoted first and then dropped, or leaves before its turn, the seats must end up
+        // with the first four students who stayed
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String holder : holders) {
+            tasks.add(() -> {
+                store.drop(holder, course);
+                return null;
+            });
+        }
+        for (int i = 0; i < 20; i += 2) {
+            String leaver = "w" + i;
+            tasks.add(() -> {
+                assertEquals(EnrollmentStore.Status.DROPPED, store.drop(leaver, course).status);
+                return null;
+            });
+        }
+        runTogether(tasks);
+
+        for (int i = 0; i < 20; i++) {
+            boolean seated = store.schedule("w" + i).courses().contains(course);
+            assertEquals(i % 2 == 1 && i < 8, seated, "w" + i);
+        }
+        assertEquals(4, store.seats().taken(course));
+        assertEquals(List.of("w9", "w11", "w13", "w15", "w17", "w19"), store.seats().waitlist(course));
+    }
+
+    private static Course course(String code) {
+        return new Course(code, "Course " + code, "L1", "P1", true, 3, "MWF", "9:00 - 9:50", "T",
+                "2:00 - 4:00", "Dr. Instructor");
+    }
+
+    private static int enrolledIn(EnrollmentStore store, Course course) {
+        int count = 0;
+        for (EnrollmentStore.Schedule schedule : store.schedules()) {
+            if (schedule.courses().contains(course)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Run the tasks on the pool, released together, and rethrow the first failure
+    private void runTogether(List<Callable<Void>> tasks) throws Exception {
+        CountDownLatch ready = new CountDownLatch(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(pool.submit(() -> {
+                ready.countDown();
+                start.await();
+                return task.call();
+            }));
+        }
+        ready.await();
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+}